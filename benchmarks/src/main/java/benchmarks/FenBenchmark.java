@@ -0,0 +1,55 @@
+package benchmarks;
+
+import chess.ChessGame;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reading and writing positions as FEN, the text form used for caches, logs
+ * and analysis requests. The buffer and builder are reused, so the
+ * allocation per operation is only the parsed game itself.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FenBenchmark {
+
+    @Param({"START", "MIDGAME", "ENDGAME"})
+    public Positions position;
+
+    private ChessGame game;
+    private String fen;
+    private final StringBuilder text = new StringBuilder(128);
+    private final ByteBuffer buffer = ByteBuffer.allocate(128);
+
+    @Setup
+    public void setUp() {
+        game = position.newGame();
+        fen = game.toFen();
+    }
+
+    @Benchmark
+    public ChessGame parse() {
+        return ChessGame.fromFen(fen);
+    }
+
+    @Benchmark
+    public StringBuilder write() {
+        text.setLength(0);
+        game.toFen(text);
+        return text;
+    }
+
+    @Benchmark
+    public ChessGame roundTripBuffer() {
+        buffer.clear();
+        game.toFen(buffer);
+        buffer.flip();
+        return ChessGame.fromFen(buffer);
+    }
+}
@@ -0,0 +1,47 @@
+package benchmarks;
+
+import chess.ChessGame;
+import chess.GameCodec;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encoding and decoding games in the binary form used for storage and
+ * transport, through a reused buffer.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameCodecBenchmark {
+
+    @Param({"START", "MIDGAME", "ENDGAME"})
+    public Positions position;
+
+    private ChessGame game;
+    private final ByteBuffer buffer = ByteBuffer.allocate(GameCodec.MAX_BYTES);
+
+    @Setup
+    public void setUp() {
+        game = position.newGame();
+    }
+
+    @Benchmark
+    public ByteBuffer encode() {
+        buffer.clear();
+        GameCodec.encode(game, buffer);
+        return buffer;
+    }
+
+    @Benchmark
+    public ChessGame roundTrip() {
+        buffer.clear();
+        GameCodec.encode(game, buffer);
+        buffer.flip();
+        return GameCodec.decode(buffer);
+    }
+}
@@ -0,0 +1,65 @@
+package benchmarks;
+
+import chess.*;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Move generation for every piece of the side to move, with and without the
+ * check filtering done by {@link ChessGame#validMoves}. The game caches its
+ * legal moves per position, so {@code validMoves} measures queries answered
+ * from the cache and {@code validMovesNewPosition} the first query after a
+ * board change. {@code allValidMoves} finds the same moves as one
+ * bitboard per square.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoveGenerationBenchmark {
+
+    @Param({"START", "MIDGAME", "PROMOTIONS", "ENDGAME"})
+    public Positions position;
+
+    private ChessGame game;
+    private ChessBoard board;
+    private List<ChessPosition> pieces;
+
+    @Setup
+    public void setUp() {
+        game = position.newGame();
+        board = game.getBoard();
+        pieces = new ArrayList<>();
+        for (long occupied = board.getOccupancy(game.getTeamTurn()); occupied != 0; occupied &= occupied - 1) {
+            int square = Long.numberOfTrailingZeros(occupied);
+            pieces.add(ChessPosition.of(square));
+        }
+    }
+
+    @Benchmark
+    public void pieceMoves(Blackhole blackhole) {
+        for (ChessPosition piece : pieces) blackhole.consume(board.getPiece(piece).pieceMoves(board, piece));
+    }
+
+    @Benchmark
+    public void validMoves(Blackhole blackhole) {
+        for (ChessPosition piece : pieces) blackhole.consume(game.validMoves(piece));
+    }
+
+    @Benchmark
+    public long[] allValidMoves() {
+        return game.allValidMoves(game.getTeamTurn());
+    }
+
+    @Benchmark
+    public void validMovesNewPosition(Blackhole blackhole) {
+        game.setBoard(board);
+        for (ChessPosition piece : pieces) blackhole.consume(game.validMoves(piece));
+    }
+}
@@ -0,0 +1,58 @@
+package benchmarks;
+
+import chess.ChessGame;
+import chess.engine.ParallelSearch;
+import chess.engine.SearchResult;
+import chess.engine.TranspositionTable;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to reach a fixed depth with 1 to N search threads sharing one
+ * transposition table. The table is cleared before every search, so each
+ * measurement starts cold and the speedup comes from the threads alone.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParallelSearchBenchmark {
+
+    @Param({"START", "MIDGAME", "PROMOTIONS", "ENDGAME"})
+    public Positions position;
+
+    @Param({"1", "2", "4", "8"})
+    public int threads;
+
+    @Param({"6"})
+    public int depth;
+
+    private ChessGame game;
+    private TranspositionTable table;
+    private ParallelSearch search;
+
+    @Setup
+    public void setUp() {
+        game = position.newGame();
+        table = new TranspositionTable(64);
+        search = new ParallelSearch(table, threads);
+    }
+
+    @Setup(Level.Invocation)
+    public void clearTable() {
+        table.clear();
+    }
+
+    @TearDown
+    public void tearDown() {
+        search.close();
+    }
+
+    @Benchmark
+    public SearchResult timeToDepth() {
+        return search.search(game, Long.MAX_VALUE, depth, threads);
+    }
+}
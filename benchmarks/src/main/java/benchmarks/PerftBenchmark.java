@@ -0,0 +1,59 @@
+package benchmarks;
+
+import chess.ChessGame;
+import chess.Perft;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fixed-depth perft, serial and fork/join. The {@link NodeCounter} auxiliary
+ * counter makes JMH report nodes per second next to the perft calls per
+ * second.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PerftBenchmark {
+
+    @Param({"START", "MIDGAME", "PROMOTIONS", "ENDGAME"})
+    public Positions position;
+
+    @Param({"3"})
+    public int depth;
+
+    private ChessGame game;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class NodeCounter {
+        public long nodes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            nodes = 0;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        game = position.newGame();
+    }
+
+    @Benchmark
+    public long perft(NodeCounter counter) {
+        long nodes = Perft.perft(game, depth);
+        counter.nodes += nodes;
+        return nodes;
+    }
+
+    @Benchmark
+    public long parallelPerft(NodeCounter counter) {
+        long nodes = Perft.parallelDivide(game, depth).nodes();
+        counter.nodes += nodes;
+        return nodes;
+    }
+}
@@ -0,0 +1,56 @@
+package benchmarks;
+
+import chess.Perft;
+import com.sun.management.ThreadMXBean;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Runs perft on every benchmark position, checks the node counts and reports
+ * nodes per second and bytes allocated per node. The deepest count of each
+ * position is repeated in parallel, with and without a hash table, and must
+ * match as well.
+ * <p>
+ * Usage: {@code mvn -pl benchmarks exec:java -Dexec.args="[maxDepth]"}
+ */
+public class PerftDriver {
+
+    public static void main(String[] args) {
+        int maxDepth = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+        ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        boolean allMatched = true;
+
+        for (Positions position : Positions.values()) {
+            int deepest = Math.min(maxDepth, position.maxDepth());
+            for (int depth = 1; depth <= deepest; depth++) {
+                var game = position.newGame();
+                long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+                long start = System.nanoTime();
+                long nodes = Perft.perft(game, depth);
+                long elapsed = System.nanoTime() - start;
+                long allocated = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+
+                long expected = position.expectedNodes(depth);
+                allMatched &= nodes == expected;
+                System.out.printf("%-10s depth %d %,14d nodes %10.1f ms %,14.0f nodes/s %,10.1f B/node  %s%n",
+                        position, depth, nodes, elapsed / 1e6, nodes * 1e9 / elapsed, (double) allocated / nodes,
+                        nodes == expected ? "ok" : "EXPECTED " + expected);
+            }
+
+            long expected = position.expectedNodes(deepest);
+            allMatched &= report(position, "parallel", Perft.parallelDivide(position.newGame(), deepest), expected);
+            allMatched &= report(position, "parallel+hash", Perft.parallelDivide(position.newGame(), deepest,
+                    ForkJoinPool.commonPool(), new Perft.Cache(64)), expected);
+        }
+
+        if (!allMatched) System.exit(1);
+    }
+
+    private static boolean report(Positions position, String mode, Perft.Result result, long expected) {
+        System.out.printf("%-10s %-14s %,14d nodes %10.1f ms %,14.0f nodes/s  %s%n",
+                position, mode, result.nodes(), result.elapsedNanos() / 1e6, result.nodesPerSecond(),
+                result.nodes() == expected ? "ok" : "EXPECTED " + expected);
+        return result.nodes() == expected;
+    }
+}
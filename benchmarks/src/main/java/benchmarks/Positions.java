@@ -0,0 +1,125 @@
+package benchmarks;
+
+import chess.*;
+
+import java.util.Map;
+
+/**
+ * Fixed benchmark positions, drawn in the same text format the passoff tests
+ * use, together with their perft node counts.
+ * <p>
+ * The counts follow this engine's rules, which have no castling or en
+ * passant. They agree with the published tables for these positions except
+ * where one of those moves first becomes possible.
+ */
+public enum Positions {
+    START("""
+            |r|n|b|q|k|b|n|r|
+            |p|p|p|p|p|p|p|p|
+            | | | | | | | | |
+            | | | | | | | | |
+            | | | | | | | | |
+            | | | | | | | | |
+            |P|P|P|P|P|P|P|P|
+            |R|N|B|Q|K|B|N|R|
+            """, ChessGame.TeamColor.WHITE, new long[]{20, 400, 8902, 197281, 4865351}),
+
+    MIDGAME("""
+            |r| | | | |r|k| |
+            | |p|p| |q|p|p|p|
+            |p| |n|p| |n| | |
+            | | |b| |p| |B| |
+            | | |B| |P| |b| |
+            |P| |N|P| |N| | |
+            | |P|P| |Q|P|P|P|
+            |R| | | | |R|K| |
+            """, ChessGame.TeamColor.WHITE, new long[]{46, 2079, 89890, 3894594}),
+
+    PROMOTIONS("""
+            |n| |n| | | | | |
+            |P|P|P|k| | | | |
+            | | | | | | | | |
+            | | | | | | | | |
+            | | | | | | | | |
+            | | | | | | | | |
+            | | | | |K|p|p|p|
+            | | | | | |N| |N|
+            """, ChessGame.TeamColor.BLACK, new long[]{24, 496, 9483, 182838, 3605103}),
+
+    ENDGAME("""
+            | | | | | | | | |
+            | | |p| | | | | |
+            | | | |p| | | | |
+            |K|P| | | | | |r|
+            | |R| | | |p| |k|
+            | | | | | | | | |
+            | | | | |P| |P| |
+            | | | | | | | | |
+            """, ChessGame.TeamColor.WHITE, new long[]{14, 191, 2810, 43087, 671300});
+
+    private static final Map<Character, ChessPiece.PieceType> TYPES = Map.of(
+            'p', ChessPiece.PieceType.PAWN,
+            'n', ChessPiece.PieceType.KNIGHT,
+            'r', ChessPiece.PieceType.ROOK,
+            'q', ChessPiece.PieceType.QUEEN,
+            'k', ChessPiece.PieceType.KING,
+            'b', ChessPiece.PieceType.BISHOP);
+
+    private final String boardText;
+    private final ChessGame.TeamColor toMove;
+    private final long[] perft;
+
+    Positions(String boardText, ChessGame.TeamColor toMove, long[] perft) {
+        this.boardText = boardText;
+        this.toMove = toMove;
+        this.perft = perft;
+    }
+
+    /**
+     * @return a fresh game set up at this position
+     */
+    public ChessGame newGame() {
+        ChessGame game = new ChessGame();
+        game.setBoard(loadBoard(boardText));
+        game.setTeamTurn(toMove);
+        return game;
+    }
+
+    /**
+     * @return deepest depth with a known node count
+     */
+    public int maxDepth() {
+        return perft.length;
+    }
+
+    /**
+     * @return expected perft node count at the given depth (1-based)
+     */
+    public long expectedNodes(int depth) {
+        return perft[depth - 1];
+    }
+
+    private static ChessBoard loadBoard(String boardText) {
+        ChessBoard board = new ChessBoard();
+        int row = 8;
+        int column = 1;
+        for (char c : boardText.toCharArray()) {
+            switch (c) {
+                case '\n' -> {
+                    column = 1;
+                    row--;
+                }
+                case ' ' -> column++;
+                case '|' -> {
+                }
+                default -> {
+                    ChessGame.TeamColor color = Character.isLowerCase(c) ? ChessGame.TeamColor.BLACK
+                            : ChessGame.TeamColor.WHITE;
+                    board.addPiece(new ChessPosition(row, column), ChessPiece.of(color, TYPES.get(Character.toLowerCase(c))));
+                    column++;
+                }
+            }
+        }
+        return board;
+    }
+}
@@ -0,0 +1,33 @@
+package benchmarks;
+
+import chess.Move;
+import chess.engine.Search;
+import chess.engine.SearchResult;
+import chess.engine.TranspositionTable;
+
+/**
+ * Searches every benchmark position to a fixed depth from an empty
+ * transposition table and reports the nodes it took. Node counts do not
+ * depend on the machine, so they show how well the search prunes: better
+ * move ordering reaches the same depth in fewer nodes.
+ * <p>
+ * Usage: {@code java -cp benchmarks/target/benchmarks-jar-with-dependencies.jar benchmarks.SearchDriver [depth]}
+ */
+public class SearchDriver {
+
+    public static void main(String[] args) {
+        int depth = args.length > 0 ? Integer.parseInt(args[0]) : 6;
+        long totalNodes = 0;
+
+        for (Positions position : Positions.values()) {
+            Search search = new Search(new TranspositionTable(64));
+            long start = System.nanoTime();
+            SearchResult result = search.search(position.newGame(), Long.MAX_VALUE, depth);
+            long elapsed = System.nanoTime() - start;
+            totalNodes += result.nodes();
+            System.out.printf("%-10s depth %d %,14d nodes %10.1f ms  best %s score %d%n",
+                    position, result.depth(), result.nodes(), elapsed / 1e6, Move.toString(result.move()), result.score());
+        }
+        System.out.printf("%-10s         %,14d nodes%n", "TOTAL", totalNodes);
+    }
+}
@@ -0,0 +1,228 @@
+package chess;
+
+/**
+ * Precomputed attack sets for every piece type, indexed by 0-63 square.
+ * <p>
+ * Leaper tables (knight, king, pawn) are filled once at class load. Slider
+ * attacks depend on the board occupancy and come from magic bitboard tables:
+ * the occupied squares on the slider's rays are multiplied by a per-square
+ * magic number and shifted down to an index into a table of attack sets, so a
+ * lookup is one multiply, one shift and one load. Ray ends include the first
+ * occupied square, whoever owns it.
+ */
+public final class Attacks {
+
+    private static final int[][] KNIGHT_STEPS = {{-2,1}, {-2,-1}, {-1,2}, {-1,-2}, {1,2}, {1,-2}, {2,1}, {2,-1}};
+    private static final int[][] KING_STEPS = {{1,0}, {-1,0}, {0,-1}, {0,1}, {1,1}, {1,-1}, {-1,1}, {-1,-1}};
+    private static final int[][] BISHOP_RAYS = {{1,1}, {1,-1}, {-1,1}, {-1,-1}};
+    private static final int[][] ROOK_RAYS = {{1,0}, {-1,0}, {0,-1}, {0,1}};
+
+    private static final long[] KNIGHT = new long[Bitboards.SQUARES];
+    private static final long[] KING = new long[Bitboards.SQUARES];
+    private static final long[][] PAWN = new long[2][Bitboards.SQUARES];
+    private static final long[][] BETWEEN = new long[Bitboards.SQUARES][Bitboards.SQUARES];
+    private static final long[][] LINE = new long[Bitboards.SQUARES][Bitboards.SQUARES];
+
+    private static final long[] BISHOP_MAGICS = {
+            0x0042021404008201L, 0x0820040102102060L, 0x01904C0081200008L, 0x0428060840002320L,
+            0x0044030800000811L, 0x60620202A0001010L, 0x001C040423088080L, 0x2003040100880400L,
+            0x02250504B00A0200L, 0x2001040148290100L, 0x28000800BC008000L, 0xA4080819410A12C0L,
+            0x001C420210000002L, 0x2000090160121400L, 0x0000004424200801L, 0x1042008548021102L,
+            0x0086044010040100L, 0x400202A108010100L, 0x0002084040820082L, 0x0808000082004204L,
+            0x0C01000820082812L, 0x000A210A02100201L, 0x0080494088080801L, 0x1051040025011002L,
+            0x0004600040020430L, 0x2084040032081840L, 0x4104100229124080L, 0x0882080044004108L,
+            0x0401010001914000L, 0x000400434808020BL, 0x0000A10080880800L, 0x0A04002701010104L,
+            0x040C054400212000L, 0x02CC104400080100L, 0x2015203000080C80L, 0x8000280800020A00L,
+            0x0001020400020500L, 0x22908086000B0500L, 0x0010820040220100L, 0x0008104050108200L,
+            0x1001101010200480L, 0x640200A420000440L, 0x0700140024068801L, 0x4000005144000800L,
+            0x1010100210104200L, 0x2001104102004041L, 0x0210301200400080L, 0x6502008106111100L,
+            0xC043040A20060480L, 0x0182020A02820220L, 0xC0C8020884048000L, 0x1000083042020064L,
+            0x0A04083020288011L, 0x6012081010189000L, 0x1040106200A10008L, 0x4202043404004021L,
+            0x0832421201200202L, 0x5120020208820881L, 0x42A008002209100AL, 0x0004110210840401L,
+            0x0000101022204100L, 0x080218041002020AL, 0x0000C0110400A080L, 0x1810501088009020L
+    };
+
+    private static final long[] ROOK_MAGICS = {
+            0x8080092080504000L, 0x11C0022000401008L, 0x0880200108809000L, 0x0280080050008104L,
+            0x4080020800040080L, 0x0300180400010002L, 0x04000A0110180884L, 0x8200002041008204L,
+            0x0004800040088020L, 0x0070400020100040L, 0x0028801004200880L, 0x0400800800801000L,
+            0x0880800400800800L, 0x8201000300040008L, 0x6021002200048100L, 0x1102000040821421L,
+            0x06C0008000304080L, 0x0020004010004020L, 0x02E4808020081000L, 0x400B010010022008L,
+            0x0C04450028001100L, 0x8104818014000200L, 0x0480040012880130L, 0x205CC20000804104L,
+            0x6000400080008038L, 0x118C850100204000L, 0x2120008080201000L, 0x9012002200084014L,
+            0x0010040080080080L, 0x5104000202001008L, 0x040E000A00240801L, 0x002080028004C100L,
+            0x0880002000404000L, 0x0010442002401000L, 0x0013004813002000L, 0x2050040041400801L,
+            0xC080040080800800L, 0x0092004822003005L, 0x0400820144001028L, 0x0840004102000084L,
+            0x188001A000434009L, 0x0090002000404002L, 0x0020008010008020L, 0x0602022040D20018L,
+            0x000A002008120004L, 0x0010040002008080L, 0x00080802C1040010L, 0x4018010050820024L,
+            0x8140004080042680L, 0x1010804000201080L, 0x4800110040200100L, 0x0A20100008008080L,
+            0x8008001C00810980L, 0x0920800200040080L, 0x0000111028120400L, 0x4208008041040200L,
+            0x8883A0800A5100C1L, 0x2001020080201042L, 0x0102004020120A82L, 0x0801845001002009L,
+            0x0006000804201002L, 0x0002001001C80402L, 0x0000083000810204L, 0x00000080244C0102L
+    };
+
+    private static final MagicTable BISHOP = new MagicTable(BISHOP_RAYS, BISHOP_MAGICS);
+    private static final MagicTable ROOK = new MagicTable(ROOK_RAYS, ROOK_MAGICS);
+
+    static {
+        for (int square = 0; square < Bitboards.SQUARES; square++) {
+            KNIGHT[square] = leaperAttacks(square, KNIGHT_STEPS);
+            KING[square] = leaperAttacks(square, KING_STEPS);
+            PAWN[ChessGame.TeamColor.WHITE.ordinal()][square] = leaperAttacks(square, new int[][]{{1,-1}, {1,1}});
+            PAWN[ChessGame.TeamColor.BLACK.ordinal()][square] = leaperAttacks(square, new int[][]{{-1,-1}, {-1,1}});
+            fillLines(square);
+        }
+    }
+
+    private Attacks() {
+    }
+
+    private static long leaperAttacks(int square, int[][] steps) {
+        long attacks = 0L;
+        for (int[] step : steps) {
+            int row = Bitboards.row(square) + step[0];
+            int col = Bitboards.column(square) + step[1];
+            if (Bitboards.onBoard(row, col)) attacks |= Bitboards.bit(Bitboards.square(row, col));
+        }
+        return attacks;
+    }
+
+    private static void fillLines(int from) {
+        for (int[] ray : KING_STEPS) {
+            long line = rayAttacks(from, 0L, new int[][]{ray}) | rayAttacks(from, 0L, new int[][]{{-ray[0], -ray[1]}})
+                    | Bitboards.bit(from);
+            long between = 0L;
+            int row = Bitboards.row(from) + ray[0];
+            int col = Bitboards.column(from) + ray[1];
+            for (; Bitboards.onBoard(row, col); row += ray[0], col += ray[1]) {
+                int to = Bitboards.square(row, col);
+                BETWEEN[from][to] = between;
+                LINE[from][to] = line;
+                between |= Bitboards.bit(to);
+            }
+        }
+    }
+
+    private static long rayAttacks(int square, long occupied, int[][] rays) {
+        long attacks = 0L;
+        for (int[] ray : rays) {
+            int row = Bitboards.row(square) + ray[0];
+            int col = Bitboards.column(square) + ray[1];
+            while (Bitboards.onBoard(row, col)) {
+                long bit = Bitboards.bit(Bitboards.square(row, col));
+                attacks |= bit;
+                if ((occupied & bit) != 0) break;
+                row += ray[0];
+                col += ray[1];
+            }
+        }
+        return attacks;
+    }
+
+    public static long knight(int square) {
+        return KNIGHT[square];
+    }
+
+    public static long king(int square) {
+        return KING[square];
+    }
+
+    /**
+     * @return the squares a pawn of the given color standing on {@code square} attacks
+     */
+    public static long pawn(ChessGame.TeamColor color, int square) {
+        return PAWN[color.ordinal()][square];
+    }
+
+    public static long bishop(int square, long occupied) {
+        return BISHOP.attacks(square, occupied);
+    }
+
+    public static long rook(int square, long occupied) {
+        return ROOK.attacks(square, occupied);
+    }
+
+    public static long queen(int square, long occupied) {
+        return bishop(square, occupied) | rook(square, occupied);
+    }
+
+    /**
+     * @return the squares strictly between two squares on the same row, column
+     * or diagonal, or an empty bitboard if they are not aligned
+     */
+    public static long between(int from, int to) {
+        return BETWEEN[from][to];
+    }
+
+    /**
+     * @return every square of the row, column or diagonal through both squares,
+     * edge to edge, or an empty bitboard if they are not aligned
+     */
+    public static long line(int from, int to) {
+        return LINE[from][to];
+    }
+
+    /**
+     * Magic bitboard lookup for one slider type. For each square, every subset
+     * of the relevant occupancy mask (the rays minus their last square, which
+     * is attacked whether or not it is occupied) is hashed by
+     * {@code (occupied & mask) * magic >>> shift} to its attack set. The magic
+     * numbers were found by a random search for multipliers that send every
+     * subset with a different attack set to a different index; the
+     * constructor checks that property again while it fills the table.
+     */
+    private static final class MagicTable {
+        private final long[] masks = new long[Bitboards.SQUARES];
+        private final long[] magics;
+        private final int[] shifts = new int[Bitboards.SQUARES];
+        private final int[] offsets = new int[Bitboards.SQUARES];
+        private final long[] table;
+
+        MagicTable(int[][] rays, long[] magics) {
+            this.magics = magics;
+            int size = 0;
+            for (int square = 0; square < Bitboards.SQUARES; square++) {
+                masks[square] = relevantOccupancy(square, rays);
+                shifts[square] = 64 - Long.bitCount(masks[square]);
+                offsets[square] = size;
+                size += 1 << Long.bitCount(masks[square]);
+            }
+
+            table = new long[size];
+            boolean[] filled = new boolean[size];
+            for (int square = 0; square < Bitboards.SQUARES; square++) {
+                long mask = masks[square];
+                // Carry-Rippler walk over every subset of the mask
+                long occupied = 0L;
+                do {
+                    int index = offsets[square] + (int) ((occupied * magics[square]) >>> shifts[square]);
+                    long attacks = rayAttacks(square, occupied, rays);
+                    if (filled[index] && table[index] != attacks) {
+                        throw new IllegalStateException("Magic number collides on square " + square);
+                    }
+                    filled[index] = true;
+                    table[index] = attacks;
+                    occupied = (occupied - mask) & mask;
+                } while (occupied != 0);
+            }
+        }
+
+        long attacks(int square, long occupied) {
+            return table[offsets[square] + (int) (((occupied & masks[square]) * magics[square]) >>> shifts[square])];
+        }
+
+        private static long relevantOccupancy(int square, int[][] rays) {
+            long mask = 0L;
+            for (int[] ray : rays) {
+                int row = Bitboards.row(square) + ray[0];
+                int col = Bitboards.column(square) + ray[1];
+                while (Bitboards.onBoard(row + ray[0], col + ray[1])) {
+                    mask |= Bitboards.bit(Bitboards.square(row, col));
+                    row += ray[0];
+                    col += ray[1];
+                }
+            }
+            return mask;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package chess;
+
+/**
+ * Helpers for working with 64-bit bitboards.
+ * <p>
+ * Squares are numbered 0-63, starting at a1 (row 1, column 1) and counting
+ * across each row, so bit {@code (row - 1) * 8 + (column - 1)} is set when
+ * the square is occupied.
+ */
+public final class Bitboards {
+
+    public static final int SQUARES = 64;
+    public static final int PIECE_KINDS = 12;
+
+    public static final long FILE_A = 0x0101010101010101L;
+    public static final long FILE_H = FILE_A << 7;
+    public static final long RANK_1 = 0xFFL;
+    public static final long RANK_8 = RANK_1 << 56;
+
+    private static final ChessPiece.PieceType[] TYPES = ChessPiece.PieceType.values();
+
+    private Bitboards() {
+    }
+
+    /**
+     * @return the 0-63 index of the square at the given 1-based row and column
+     */
+    public static int square(int row, int col) {
+        return (row - 1) * 8 + (col - 1);
+    }
+
+    /**
+     * @return the 0-63 index of the given position
+     */
+    public static int square(ChessPosition position) {
+        return square(position.getRow(), position.getColumn());
+    }
+
+    /**
+     * @return 1-based row of a square index
+     */
+    public static int row(int square) {
+        return (square >>> 3) + 1;
+    }
+
+    /**
+     * @return 1-based column of a square index
+     */
+    public static int column(int square) {
+        return (square & 7) + 1;
+    }
+
+    public static boolean onBoard(int row, int col) {
+        return row >= 1 && row <= 8 && col >= 1 && col <= 8;
+    }
+
+    public static long bit(int square) {
+        return 1L << square;
+    }
+
+    /**
+     * Index of the bitboard holding a given kind of piece: white pieces use
+     * 0-5 and black pieces 6-11, in {@link ChessPiece.PieceType} order.
+     */
+    public static int pieceIndex(ChessGame.TeamColor color, ChessPiece.PieceType type) {
+        return color.ordinal() * 6 + type.ordinal();
+    }
+
+    public static int pieceIndex(ChessPiece piece) {
+        return pieceIndex(piece.getTeamColor(), piece.getPieceType());
+    }
+
+    public static ChessGame.TeamColor colorOf(int pieceIndex) {
+        return pieceIndex < 6 ? ChessGame.TeamColor.WHITE : ChessGame.TeamColor.BLACK;
+    }
+
+    public static ChessPiece.PieceType typeOf(int pieceIndex) {
+        return TYPES[pieceIndex % 6];
+    }
+}
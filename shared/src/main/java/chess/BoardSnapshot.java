@@ -0,0 +1,96 @@
+package chess;
+
+import java.util.Arrays;
+
+/**
+ * An immutable picture of a game's board and side to move, packed into the
+ * twelve piece bitboards.
+ * <p>
+ * {@link ChessGame} publishes a new snapshot after every committed move, so
+ * any number of threads can read the position without locking the game or
+ * seeing a move half-applied. Taking one copies twelve longs.
+ */
+public final class BoardSnapshot {
+
+    private final long[] bitboards = new long[Bitboards.PIECE_KINDS];
+    private final ChessGame.TeamColor teamTurn;
+    private final long zobristKey;
+
+    BoardSnapshot(ChessBoard board, ChessGame.TeamColor teamTurn) {
+        for (int pieceIndex = 0; pieceIndex < Bitboards.PIECE_KINDS; pieceIndex++) {
+            bitboards[pieceIndex] = board.getBitboard(Bitboards.colorOf(pieceIndex), Bitboards.typeOf(pieceIndex));
+        }
+        this.teamTurn = teamTurn;
+        this.zobristKey = board.getZobristKey() ^ Zobrist.side(teamTurn);
+    }
+
+    /**
+     * @param square 0-63 square index
+     * @return Either the piece on the square, or null if it is empty
+     */
+    public ChessPiece getPiece(int square) {
+        long bit = Bitboards.bit(square);
+        for (int pieceIndex = 0; pieceIndex < Bitboards.PIECE_KINDS; pieceIndex++) {
+            if ((bitboards[pieceIndex] & bit) != 0) {
+                return ChessPiece.of(Bitboards.colorOf(pieceIndex), Bitboards.typeOf(pieceIndex));
+            }
+        }
+        return null;
+    }
+
+    public ChessPiece getPiece(ChessPosition position) {
+        return getPiece(Bitboards.square(position));
+    }
+
+    /**
+     * @return bitboard of every square holding a piece of the given color and type
+     */
+    public long getBitboard(ChessGame.TeamColor color, ChessPiece.PieceType type) {
+        return bitboards[Bitboards.pieceIndex(color, type)];
+    }
+
+    /**
+     * @return bitboard of every occupied square
+     */
+    public long getOccupancy() {
+        long occupied = 0L;
+        for (long bitboard : bitboards) occupied |= bitboard;
+        return occupied;
+    }
+
+    public ChessGame.TeamColor getTeamTurn() {
+        return teamTurn;
+    }
+
+    /**
+     * @return the same key as {@link ChessGame#getZobristKey()} had when the snapshot was taken
+     */
+    public long getZobristKey() {
+        return zobristKey;
+    }
+
+    /**
+     * @return a new mutable board with the snapshot's pieces
+     */
+    public ChessBoard toBoard() {
+        ChessBoard board = new ChessBoard();
+        for (long occupied = getOccupancy(); occupied != 0; occupied &= occupied - 1) {
+            int square = Long.numberOfTrailingZeros(occupied);
+            board.addPiece(ChessPosition.of(square), getPiece(square));
+        }
+        return board;
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        if (this == object) return true;
+        if (object == null || getClass() != object.getClass()) return false;
+        BoardSnapshot that = (BoardSnapshot) object;
+        return teamTurn == that.teamTurn && Arrays.equals(bitboards, that.bitboards);
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(zobristKey);
+    }
+}
@@ -1,36 +1,58 @@
 package chess;
 
+import com.google.gson.annotations.JsonAdapter;
+
 import java.util.Arrays;
 
 /**
  * A chessboard that can hold and rearrange chess pieces.
  * <p>
+ * Pieces are kept both in a 64-entry mailbox (so {@link #getPiece} is a single
+ * array load) and in twelve bitboards, one per color and piece type, plus an
+ * occupancy mask per color. Every change goes through {@link #addPiece} and
+ * {@link #removePiece}, which keep the two views, the Zobrist key and the
+ * evaluation in sync.
+ * The mailbox only holds the shared {@link ChessPiece#of} instances, so
+ * copying a board copies references and never pieces.
+ * <p>
+ * Everything but the mailbox is derived from it and never serialized. Gson
+ * writes only the pieces, through {@link GameCodec}, and a board it reads is
+ * rebuilt piece by piece like any other.
+ * <p>
  * Note: You can add to this class, but you may not alter
  * signature of the existing methods.
  */
+@JsonAdapter(ChessBoardAdapter.class)
 public class ChessBoard {
 
-    private final ChessPiece[][] squares = new ChessPiece[8][8];
+    private final ChessPiece[] squares = new ChessPiece[Bitboards.SQUARES];
+    private final transient long[] pieceBitboards = new long[Bitboards.PIECE_KINDS];
+    private final transient long[] colorOccupancy = new long[2];
+    private transient long zobristKey;
+    private transient int middlegameScore;
+    private transient int endgameScore;
+    private transient int phase;
+    private transient UndoStack undoStack;
+
     public ChessBoard() {
-        
-    }
 
-//    public ChessBoard(ChessBoard dup) {
-//        this.squares = new ChessPiece[8][8];
-//        for (int row = 0; row < 8; row++) {
-//            for (int col = 0; col < 8; col++) {
-//                ChessPiece orgnlPiece = dup.squares[row][col];
-//                if (orgnlPiece != null) {
-//                    ChessPiece duplicatedPiece = new ChessPiece(orgnlPiece.getTeamColor(), orgnlPiece.getPieceType());
-//                    this.squares[row][col] = duplicatedPiece;
-//                }
-//                else {
-//                    this.squares[row][col] = null;
-//                }
-//            }
-//        }
-//    }
+    }
 
+    /**
+     * Creates an independent copy of a board. Pieces are immutable, so the
+     * copy shares them with the original.
+     *
+     * @param dup the board to copy
+     */
+    public ChessBoard(ChessBoard dup) {
+        System.arraycopy(dup.squares, 0, squares, 0, squares.length);
+        System.arraycopy(dup.pieceBitboards, 0, pieceBitboards, 0, pieceBitboards.length);
+        System.arraycopy(dup.colorOccupancy, 0, colorOccupancy, 0, colorOccupancy.length);
+        zobristKey = dup.zobristKey;
+        middlegameScore = dup.middlegameScore;
+        endgameScore = dup.endgameScore;
+        phase = dup.phase;
+    }
 
     /**
      * Adds a chess piece to the chessboard
@@ -39,16 +61,142 @@ public class ChessBoard {
      * @param piece    the piece to add
      */
     public void addPiece(ChessPosition position, ChessPiece piece) {
-//        System.out.println(squares.length);
-        squares[position.getRow() - 1][position.getColumn() - 1] = piece;
+        int square = Bitboards.square(position);
+        clearSquare(square);
+        if (piece != null) setSquare(square, ChessPiece.of(piece));
     }
 
 
+    /**
+     * Puts a piece on a square by index, for parsers and decoders that fill a
+     * whole board without creating positions
+     *
+     * @param piece a shared instance from {@link ChessPiece#of}
+     */
+    void addPiece(int square, ChessPiece piece) {
+        clearSquare(square);
+        setSquare(square, piece);
+    }
+
     public void removePiece(ChessPosition position) {
-        squares[position.getRow() - 1][position.getColumn() - 1] = null;
+        clearSquare(Bitboards.square(position));
+    }
+
+    private void setSquare(int square, ChessPiece piece) {
+        long bit = Bitboards.bit(square);
+        int pieceIndex = Bitboards.pieceIndex(piece);
+        squares[square] = piece;
+        pieceBitboards[pieceIndex] |= bit;
+        colorOccupancy[piece.getTeamColor().ordinal()] |= bit;
+        zobristKey ^= Zobrist.piece(pieceIndex, square);
+        middlegameScore += PieceSquareTables.middlegame(pieceIndex, square);
+        endgameScore += PieceSquareTables.endgame(pieceIndex, square);
+        phase += PieceSquareTables.phase(pieceIndex);
+    }
+
+    private void clearSquare(int square) {
+        ChessPiece piece = squares[square];
+        if (piece == null) return;
+
+        long keep = ~Bitboards.bit(square);
+        int pieceIndex = Bitboards.pieceIndex(piece);
+        squares[square] = null;
+        pieceBitboards[pieceIndex] &= keep;
+        colorOccupancy[piece.getTeamColor().ordinal()] &= keep;
+        zobristKey ^= Zobrist.piece(pieceIndex, square);
+        middlegameScore -= PieceSquareTables.middlegame(pieceIndex, square);
+        endgameScore -= PieceSquareTables.endgame(pieceIndex, square);
+        phase -= PieceSquareTables.phase(pieceIndex);
     }
 
 
+    /**
+     * Plays a packed {@link Move} without checking that it is legal and
+     * records what it changed, so {@link #unmakeMove()} can restore the board
+     * exactly. Pieces are moved between squares, never modified; a promotion
+     * puts the promoted piece on the end square in place of the pawn.
+     *
+     * @param move the packed move to play
+     */
+    public void makeMove(int move) {
+        ChessPiece captured = squares[Move.to(move)];
+        undoStack().push(move, captured == null ? -1 : Bitboards.pieceIndex(captured), zobristKey);
+        applyMove(move);
+    }
+
+    /**
+     * Plays a packed {@link Move} for good, recording nothing to take it
+     * back, as {@link ChessGame} does with the moves of a real game
+     */
+    void applyMove(int move) {
+        int from = Move.from(move);
+        int to = Move.to(move);
+        ChessPiece moved = squares[from];
+        clearSquare(to);
+        clearSquare(from);
+        setSquare(to, Move.isPromotion(move) ? ChessPiece.of(moved.getTeamColor(), Move.promotion(move)) : moved);
+    }
+
+    /**
+     * Takes back the most recent {@link #makeMove(int)}
+     */
+    public void unmakeMove() {
+        UndoStack undo = undoStack();
+        int top = undo.pop();
+        int move = undo.moves[top];
+        int to = Move.to(move);
+        ChessPiece moved = squares[to];
+        if (Move.isPromotion(move)) moved = ChessPiece.of(moved.getTeamColor(), ChessPiece.PieceType.PAWN);
+
+        clearSquare(to);
+        setSquare(Move.from(move), moved);
+        int captured = undo.captured[top];
+        if (captured >= 0) setSquare(to, ChessPiece.of(Bitboards.colorOf(captured), Bitboards.typeOf(captured)));
+        zobristKey = undo.keys[top];
+    }
+
+    /**
+     * @return number of moves that {@link #unmakeMove()} can take back
+     */
+    public int getUndoDepth() {
+        return undoStack == null ? 0 : undoStack.size;
+    }
+
+    // created on first use, so boards that are only read or copied never allocate one
+    private UndoStack undoStack() {
+        if (undoStack == null) undoStack = new UndoStack();
+        return undoStack;
+    }
+
+    /**
+     * Preallocated stack of undo records, one slot per played move: the move
+     * itself, the piece index it captured (-1 for none) and the key before it.
+     * The moved piece is read back off the end square.
+     */
+    private static final class UndoStack {
+        private int[] moves = new int[128];
+        private byte[] captured = new byte[128];
+        private long[] keys = new long[128];
+        private int size;
+
+        void push(int move, int capturedPiece, long key) {
+            if (size == moves.length) {
+                moves = Arrays.copyOf(moves, size * 2);
+                captured = Arrays.copyOf(captured, size * 2);
+                keys = Arrays.copyOf(keys, size * 2);
+            }
+            moves[size] = move;
+            captured[size] = (byte) capturedPiece;
+            keys[size] = key;
+            size++;
+        }
+
+        int pop() {
+            if (size == 0) throw new IllegalStateException("No move to take back");
+            return --size;
+        }
+    }
+
     /**
      * Gets a chess piece on the chessboard
      *
@@ -57,8 +205,107 @@ public class ChessBoard {
      * position
      */
     public ChessPiece getPiece(ChessPosition position) {
-        return squares[position.getRow() - 1][position.getColumn() - 1];
-//        throw new RuntimeException("Not implemented");
+        return squares[Bitboards.square(position)];
+    }
+
+    /**
+     * @param square 0-63 square index
+     * @return Either the piece on the square, or null if it is empty
+     */
+    public ChessPiece getPiece(int square) {
+        return squares[square];
+    }
+
+    /**
+     * @return bitboard of every square holding a piece of the given color and type
+     */
+    public long getBitboard(ChessGame.TeamColor color, ChessPiece.PieceType type) {
+        return pieceBitboards[Bitboards.pieceIndex(color, type)];
+    }
+
+    /**
+     * @return bitboard of every square holding a piece of the given color
+     */
+    public long getOccupancy(ChessGame.TeamColor color) {
+        return colorOccupancy[color.ordinal()];
+    }
+
+    /**
+     * @return bitboard of every occupied square
+     */
+    public long getOccupancy() {
+        return colorOccupancy[0] | colorOccupancy[1];
+    }
+
+    /**
+     * @return Zobrist key of the piece placement, kept up to date by every
+     * {@link #addPiece} and {@link #removePiece}
+     */
+    public long getZobristKey() {
+        return zobristKey;
+    }
+
+    /**
+     * Material and piece placement in centipawns, blending middlegame and
+     * endgame values by the material left. Kept up to date by every change
+     * to the board, so reading it is free.
+     *
+     * @return the evaluation from white's point of view: positive when white is better
+     */
+    public int getEvaluation() {
+        return PieceSquareTables.taper(middlegameScore, endgameScore, phase);
+    }
+
+    /**
+     * Reads the square of a team's king straight from its bitboard
+     *
+     * @param color the king's team
+     * @return 0-63 square index, or -1 if the team has no king on the board
+     */
+    public int kingSquare(ChessGame.TeamColor color) {
+        long king = getBitboard(color, ChessPiece.PieceType.KING);
+        return king == 0 ? -1 : Long.numberOfTrailingZeros(king);
+    }
+
+    /**
+     * Determines if a square is attacked by the given team by probing outward
+     * from the square: pawn diagonals, knight jumps, the adjacent king and the
+     * first piece along each bishop and rook ray
+     *
+     * @param position the square to test
+     * @param byColor  the attacking team
+     * @return True if a piece of {@code byColor} attacks the square
+     */
+    public boolean isSquareAttacked(ChessPosition position, ChessGame.TeamColor byColor) {
+        return isSquareAttacked(Bitboards.square(position), byColor);
+    }
+
+    public boolean isSquareAttacked(int square, ChessGame.TeamColor byColor) {
+        return attackersOf(square, byColor, getOccupancy()) != 0;
+    }
+
+    /**
+     * Finds every piece of a team that attacks a square, as if the board held
+     * exactly the pieces in {@code occupied}. Passing an occupancy without a
+     * king shows which squares stay attacked once that king steps away.
+     *
+     * @param square   0-63 square index
+     * @param byColor  the attacking team
+     * @param occupied occupancy used to block slider rays
+     * @return bitboard of the attacking pieces
+     */
+    public long attackersOf(int square, ChessGame.TeamColor byColor, long occupied) {
+        int base = Bitboards.pieceIndex(byColor, ChessPiece.PieceType.KING);
+        long queens = pieceBitboards[base + ChessPiece.PieceType.QUEEN.ordinal()];
+        long diagonal = pieceBitboards[base + ChessPiece.PieceType.BISHOP.ordinal()] | queens;
+        long straight = pieceBitboards[base + ChessPiece.PieceType.ROOK.ordinal()] | queens;
+
+        long attackers = Attacks.pawn(byColor.opponent(), square) & pieceBitboards[base + ChessPiece.PieceType.PAWN.ordinal()];
+        attackers |= Attacks.knight(square) & pieceBitboards[base + ChessPiece.PieceType.KNIGHT.ordinal()];
+        attackers |= Attacks.king(square) & pieceBitboards[base];
+        if (diagonal != 0) attackers |= Attacks.bishop(square, occupied) & diagonal;
+        if (straight != 0) attackers |= Attacks.rook(square, occupied) & straight;
+        return attackers & occupied;
     }
 
     /**
@@ -77,13 +324,22 @@ public class ChessBoard {
                 ChessPiece.PieceType.ROOK
         };
 
-        for (int row : new int[]{0, 7}) {
-            for (int col = 0; col < 8; col++) {
-                ChessGame.TeamColor teamColor = (row == 0) ? ChessGame.TeamColor.WHITE : ChessGame.TeamColor.BLACK;
+        Arrays.fill(squares, null);
+        Arrays.fill(pieceBitboards, 0L);
+        Arrays.fill(colorOccupancy, 0L);
+        zobristKey = 0L;
+        middlegameScore = 0;
+        endgameScore = 0;
+        phase = 0;
+        undoStack = null;
+
+        for (int row : new int[]{1, 8}) {
+            for (int col = 1; col <= 8; col++) {
+                ChessGame.TeamColor teamColor = (row == 1) ? ChessGame.TeamColor.WHITE : ChessGame.TeamColor.BLACK;
 
-                squares[row][col] = new ChessPiece(teamColor, pieceOrder[col]);
+                setSquare(Bitboards.square(row, col), ChessPiece.of(teamColor, pieceOrder[col - 1]));
                 int teamColorSelector = teamColor == ChessGame.TeamColor.WHITE ? 1 : -1;
-                squares[row + teamColorSelector][col] = new ChessPiece(teamColor, ChessPiece.PieceType.PAWN);
+                setSquare(Bitboards.square(row + teamColorSelector, col), ChessPiece.of(teamColor, ChessPiece.PieceType.PAWN));
             }
         }
     }
@@ -93,11 +349,11 @@ public class ChessBoard {
         if (this == object) return true;
         if (object == null || getClass() != object.getClass()) return false;
         ChessBoard that = (ChessBoard) object;
-        return Arrays.deepEquals(squares, that.squares);
+        return Arrays.equals(pieceBitboards, that.pieceBitboards);
     }
 
     @Override
     public int hashCode() {
-        return Arrays.deepHashCode(squares);
+        return Long.hashCode(zobristKey);
     }
 }
@@ -0,0 +1,40 @@
+package chess;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.util.Base64;
+
+/**
+ * Writes a {@link ChessBoard} as the Base64 text of its {@link GameCodec}
+ * placement. Only the pieces travel; a board Gson reads is filled through
+ * {@link ChessBoard#addPiece}, so its bitboards, key and evaluation are
+ * worked out again and its pieces are the shared {@link ChessPiece#of} ones.
+ */
+class ChessBoardAdapter extends TypeAdapter<ChessBoard> {
+
+    @Override
+    public void write(JsonWriter out, ChessBoard board) throws IOException {
+        if (board == null) {
+            out.nullValue();
+            return;
+        }
+        out.value(Base64.getEncoder().encodeToString(GameCodec.encode(board)));
+    }
+
+    @Override
+    public ChessBoard read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        try {
+            return GameCodec.decodeBoard(Base64.getDecoder().decode(in.nextString()));
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Bad encoded board", e);
+        }
+    }
+}
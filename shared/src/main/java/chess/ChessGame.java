@@ -1,6 +1,10 @@
 package chess;
 
-import java.util.*;
+import com.google.gson.annotations.JsonAdapter;
+
+import java.nio.ByteBuffer;
+import java.util.Collection;
+import java.util.Objects;
 
 /**
  * For a class that can manage a chess game, making moves on a board
@@ -8,15 +12,78 @@ import java.util.*;
  * Note: You can add to this class, but you may not alter
  * signature of the existing methods.
  */
+@JsonAdapter(ChessGameAdapter.class)
 public class ChessGame {
     private TeamColor team;
     private ChessBoard board;
+    private int halfmoveClock;
+    private int fullmoveNumber = 1;
+    private transient volatile BoardSnapshot snapshot;
+    private transient PositionHistory history;
+    private transient LegalMoves legalMoves;
 
 
     public ChessGame() {
         board = new ChessBoard();
         board.resetBoard();
         team = TeamColor.WHITE;
+        resetHistory();
+        publishSnapshot();
+    }
+
+    ChessGame(ChessBoard board, TeamColor team, int halfmoveClock, int fullmoveNumber) {
+        this.board = board;
+        this.team = team;
+        this.halfmoveClock = halfmoveClock;
+        this.fullmoveNumber = fullmoveNumber;
+        resetHistory();
+        publishSnapshot();
+    }
+
+    /**
+     * Reads a position in Forsyth-Edwards Notation. Castling and en passant
+     * fields are accepted but ignored, since this game has neither move.
+     *
+     * @param fen the FEN text, with nothing else around it but spaces
+     * @return a new game in that position
+     * @throws IllegalArgumentException if the text is not a valid FEN
+     */
+    public static ChessGame fromFen(CharSequence fen) {
+        return Fen.read(fen);
+    }
+
+    /**
+     * Reads a position in Forsyth-Edwards Notation from the ASCII bytes at the
+     * buffer's position, and moves the position past it
+     *
+     * @throws IllegalArgumentException if the bytes are not a valid FEN
+     */
+    public static ChessGame fromFen(ByteBuffer fen) {
+        return Fen.read(fen);
+    }
+
+    /**
+     * @return the position in Forsyth-Edwards Notation
+     */
+    public String toFen() {
+        StringBuilder out = new StringBuilder(Fen.MAX_LENGTH);
+        Fen.write(this, out);
+        return out.toString();
+    }
+
+    /**
+     * Appends the position in Forsyth-Edwards Notation to a caller-supplied builder
+     */
+    public void toFen(StringBuilder out) {
+        Fen.write(this, out);
+    }
+
+    /**
+     * Writes the position in Forsyth-Edwards Notation as ASCII bytes at the
+     * buffer's position
+     */
+    public void toFen(ByteBuffer out) {
+        Fen.write(this, out);
     }
 
     /**
@@ -33,6 +100,8 @@ public class ChessGame {
      */
     public void setTeamTurn(TeamColor team) {
         this.team = team;
+        resetHistory();
+        publishSnapshot();
     }
 
     /**
@@ -40,7 +109,40 @@ public class ChessGame {
      */
     public enum TeamColor {
         WHITE,
-        BLACK
+        BLACK;
+
+        /**
+         * @return the other team
+         */
+        public TeamColor opponent() {
+            return this == WHITE ? BLACK : WHITE;
+        }
+    }
+
+    /**
+     * Where a game stands for the team whose turn it is
+     */
+    public enum GameStatus {
+        ONGOING,
+        CHECK,
+        CHECKMATE,
+        STALEMATE,
+        DRAW_REPETITION;
+
+        /**
+         * @return True if no more moves can be played
+         */
+        public boolean isOver() {
+            return this == CHECKMATE || this == STALEMATE || this == DRAW_REPETITION;
+        }
+    }
+
+    /**
+     * Every legal move of one team in one position, generated together
+     *
+     * @param key the board's Zobrist key combined with the team's side key
+     */
+    private record LegalMoves(long key, MoveList moves) {
     }
 
     private TeamColor teamSwitcher (boolean condition) {
@@ -48,50 +150,110 @@ public class ChessGame {
     }
 
     private void nextTurn() {
-        setTeamTurn(teamSwitcher(getTeamTurn() == TeamColor.WHITE));
-    }
-
-    private boolean compromisedKing (ChessPiece king, TeamColor teamColor) {
-        return king != null && king.getTeamColor() == teamColor && king.getPieceType() == ChessPiece.PieceType.KING;
+        team = teamSwitcher(getTeamTurn() == TeamColor.WHITE);
+        publishSnapshot();
     }
 
 
     public void updatePiece (ChessMove move, ChessPiece chessPiece) {
         board.addPiece(move.getEndPosition(), chessPiece);
         board.removePiece(move.getStartPosition());
+        resetHistory();
+        legalMoves = null;
+        publishSnapshot();
     }
 
-    private boolean notNullPromotion (ChessMove move) {
-        return move.getPromotionPiece() != null;
+    private static boolean onBoard (ChessPosition position) {
+        return Bitboards.onBoard(position.getRow(), position.getColumn());
     }
 
+    /**
+     * Gets a valid moves for a piece at the given location
+     *
+     * @param startPosition the piece to get valid moves for
+     * @return Set of valid moves for requested piece, or null if no piece at
+     * startPosition
+     */
+    public Collection<ChessMove> validMoves(ChessPosition startPosition) {
+        if (board.getPiece(startPosition) == null) return null;
+        MoveList validMoves = new MoveList(32);
+        validMoves(startPosition, validMoves);
+        return validMoves.toChessMoves();
+    }
 
-    private void tryMove (ChessMove move) {
-        ChessPiece chessPiece = board.getPiece(move.getStartPosition());
-        if (notNullPromotion(move)) chessPiece.promotePiece(move.getPromotionPiece());
-        updatePiece(move, chessPiece);
+    /**
+     * Adds the valid moves of the piece at the given location to a
+     * caller-supplied list as packed {@link Move}s. The first query in a
+     * position generates the moves of the piece's whole team, and later
+     * queries for any of its pieces are answered from that.
+     *
+     * @param startPosition the piece to get valid moves for
+     * @param moves         list to append to
+     */
+    public void validMoves(ChessPosition startPosition, MoveList moves) {
+        ChessPiece piece = board.getPiece(startPosition);
+        if (piece == null) return;
+        MoveList legal = legalMoves(piece.getTeamColor());
+        int from = startPosition.getSquare();
+        for (int i = 0; i < legal.size(); i++) {
+            if (Move.from(legal.get(i)) == from) moves.add(legal.get(i));
+        }
     }
 
-    private void cancelMove (ChessMove move, ChessPiece antes) {
-        ChessPiece chessPiece = board.getPiece(move.getEndPosition());
-        if (notNullPromotion(move)) chessPiece.promotePiece(ChessPiece.PieceType.PAWN);
-        board.addPiece(move.getStartPosition(), chessPiece); board.addPiece(move.getEndPosition(), antes);
+    /**
+     * Adds every valid move of a team to a caller-supplied list as packed
+     * {@link Move}s, without allocating
+     *
+     * @param teamColor the team to move
+     * @param moves     list to append to
+     */
+    public void validMoves(TeamColor teamColor, MoveList moves) {
+        MoveList legal = legalMoves(teamColor);
+        for (int i = 0; i < legal.size(); i++) moves.add(legal.get(i));
     }
 
-    private boolean isPiece (ChessPiece chessPiece, TeamColor color) {
-        return chessPiece != null && chessPiece.getTeamColor() == color;
+    /**
+     * Finds the valid moves of every piece of a team in one pass, for
+     * showing all move hints at once. Checks and pins are worked out once
+     * for the team rather than once per piece.
+     *
+     * @param teamColor the team to move
+     * @return 64 bitboards indexed by square (a1 = 0, h8 = 63), each holding
+     * the squares the piece standing there can move to; 0 for squares
+     * without a piece of the team. Bit {@code n} is the square
+     * {@link ChessPosition#of(int) ChessPosition.of(n)}.
+     */
+    public long[] allValidMoves(TeamColor teamColor) {
+        long[] targets = new long[Bitboards.SQUARES];
+        MoveGenerator.legalTargets(board, teamColor, targets);
+        return targets;
     }
 
-    public Collection<ChessMove> validMoves(ChessPosition startPosition) {
-        HashSet<ChessMove> validMoves = new HashSet<>();
-        ChessPiece piece = board.getPiece(startPosition);
-        for (ChessMove move : piece.pieceMoves(board, startPosition)) {
-            ChessPiece before = board.getPiece(move.getEndPosition());
-            tryMove(move);
-            if (!isInCheck(piece.getTeamColor())) validMoves.add(move);
-            cancelMove(move, before);
+    /**
+     * Returns the team's legal moves in the current position, generating
+     * them only if the position or team differs from the last call. The
+     * key covers every piece, so edits made straight to the board are seen
+     * too.
+     */
+    private MoveList legalMoves(TeamColor teamColor) {
+        long key = board.getZobristKey() ^ Zobrist.side(teamColor);
+        LegalMoves cached = legalMoves;
+        if (cached == null || cached.key() != key) {
+            MoveList moves = new MoveList();
+            MoveGenerator.generateLegal(board, teamColor, moves);
+            cached = new LegalMoves(key, moves);
+            legalMoves = cached;
         }
-        return validMoves;
+        return cached.moves();
+    }
+
+    /**
+     * @return the cached legal moves if they are for this team in the
+     * current position, otherwise null
+     */
+    private MoveList cachedLegalMoves(TeamColor teamColor) {
+        LegalMoves cached = legalMoves;
+        return cached != null && cached.key() == (board.getZobristKey() ^ Zobrist.side(teamColor)) ? cached.moves() : null;
     }
 
 
@@ -103,30 +265,25 @@ public class ChessGame {
      */
     public void makeMove(ChessMove move) throws InvalidMoveException {
         ChessPosition initialPosition = move.getStartPosition();
+        if (!onBoard(initialPosition) || !onBoard(move.getEndPosition())) throw new InvalidMoveException("Off the board");
         ChessPiece piece = board.getPiece(initialPosition);
+        if (piece == null) throw new InvalidMoveException("No piece there");
         if (piece.getTeamColor() != getTeamTurn()) throw new InvalidMoveException("Not your turn yet");
-        if (!validMoves(initialPosition).contains(move)) throw new InvalidMoveException("Cannot move there");
-        tryMove(move);
-        nextTurn();
-    }
 
-    private Collection<ChessPosition> returnAllPositionsOfTeam (TeamColor color) {
-        HashSet<ChessPosition> possiblePositions = new HashSet<>();
-        for (int row = 1; row <= 8; row++) {
-            for (int col = 1; col <= 8; col++) {
-                ChessPosition position = new ChessPosition(row, col);
-                ChessPiece chessPiece = board.getPiece(position);
-                if (isPiece(chessPiece, color)) possiblePositions.add(position);
-            }
+        // a single move does not pay for generating the whole team's moves
+        MoveList validMoves = cachedLegalMoves(team);
+        if (validMoves == null) {
+            validMoves = new MoveList(32);
+            MoveGenerator.generateLegal(board, initialPosition.getSquare(), validMoves);
         }
-        return possiblePositions;
-    }
-
-    private Collection<ChessMove> returnAllMovesOfTeam (TeamColor color) {
-        HashSet<ChessMove> possibleMoves = new HashSet<>();
-
-        for (ChessPosition positions : returnAllPositionsOfTeam(color)) possibleMoves.addAll(board.getPiece(positions).pieceMoves(board, positions));
-        return possibleMoves;
+        int legalMove = validMoves.find(Move.encode(move));
+        if (legalMove == Move.NONE) throw new InvalidMoveException("Cannot move there");
+        board.applyMove(legalMove);
+        boolean irreversible = Move.isCapture(legalMove) || piece.getPieceType() == ChessPiece.PieceType.PAWN;
+        halfmoveClock = irreversible ? 0 : halfmoveClock + 1;
+        if (team == TeamColor.BLACK) fullmoveNumber++;
+        nextTurn();
+        history.push(getZobristKey(), irreversible);
     }
 
     /**
@@ -136,18 +293,46 @@ public class ChessGame {
      * @return True if the specified team is in check
      */
     public boolean isInCheck(TeamColor teamColor) {
-        TeamColor opposingTeam = teamSwitcher(teamColor == TeamColor.WHITE);
-        for (ChessMove move : returnAllMovesOfTeam(opposingTeam)) {
-            if (compromisedKing(board.getPiece(move.getEndPosition()), teamColor)) return true;
-        }
-        return false;
+        int kingSquare = board.kingSquare(teamColor);
+        return kingSquare >= 0 && board.isSquareAttacked(kingSquare, teamColor.opponent());
+    }
+
+    /**
+     * Determines if any piece of the given team attacks a square, looking
+     * outward from the square rather than generating the team's moves
+     *
+     * @param position the square to test
+     * @param byColor  the attacking team
+     * @return True if a piece of {@code byColor} attacks the square
+     */
+    public boolean isSquareAttacked(ChessPosition position, TeamColor byColor) {
+        return board.isSquareAttacked(position, byColor);
     }
 
-     public void notInCheck (TeamColor teamColor, ChessMove move, ChessPiece antes) {
-         if (!isInCheck(teamColor)) {
-             cancelMove(move, antes);
-         }
-     }
+    private boolean hasNoValidMoves (TeamColor teamColor) {
+        MoveList cached = cachedLegalMoves(teamColor);
+        if (cached != null) return cached.isEmpty();
+        return !MoveGenerator.hasLegalMove(board, teamColor);
+    }
+
+    /**
+     * Works out check, checkmate and stalemate for the team to move in one
+     * pass, stopping at the first legal move found, then looks for a third
+     * repetition of the position
+     *
+     * @return the status of the game for the team whose turn it is
+     */
+    public GameStatus status() {
+        GameStatus status = status(team);
+        if (!status.isOver() && history.isThreefold()) return GameStatus.DRAW_REPETITION;
+        return status;
+    }
+
+    private GameStatus status(TeamColor teamColor) {
+        boolean inCheck = isInCheck(teamColor);
+        if (hasNoValidMoves(teamColor)) return inCheck ? GameStatus.CHECKMATE : GameStatus.STALEMATE;
+        return inCheck ? GameStatus.CHECK : GameStatus.ONGOING;
+    }
 
     /**
      * Determines if the given team is in checkmate
@@ -156,16 +341,7 @@ public class ChessGame {
      * @return True if the specified team is in checkmate
      */
     public boolean isInCheckmate(TeamColor teamColor) {
-        if (!isInCheck(teamColor)) return false;
-        else {
-            for (ChessMove move : returnAllMovesOfTeam(teamColor)) {
-                ChessPiece antes = board.getPiece(move.getEndPosition());
-                tryMove(move);
-                notInCheck(teamColor, move, antes);
-                cancelMove(move, antes);
-            }
-            return true;
-        }
+        return status(teamColor) == GameStatus.CHECKMATE;
     }
 
     /**
@@ -176,12 +352,93 @@ public class ChessGame {
      * @return True if the specified team is in stalemate, otherwise false
      */
     public boolean isInStalemate(TeamColor teamColor) {
-        HashSet<ChessMove> possibleMoves = new HashSet<>();
-        Collection<ChessPosition> possiblePositions = returnAllPositionsOfTeam(teamColor);
-        for (ChessPosition position : possiblePositions) possibleMoves.addAll(validMoves(position));
-        return possibleMoves.isEmpty();
+        return hasNoValidMoves(teamColor);
+    }
+
+
+    /**
+     * @return True if the current position has occurred three times since
+     * the last capture or pawn move
+     */
+    public boolean isDrawByRepetition() {
+        return history.isThreefold();
+    }
+
+    /**
+     * @return a copy of the positions played since this game was created or
+     * last had its board or turn set, for a search to extend with its own moves
+     */
+    public PositionHistory getPositionHistory() {
+        return new PositionHistory(history);
+    }
+
+    // a new game, or one whose board or turn was set, has no earlier moves
+    // reads the fields directly, since constructors call it and getZobristKey() can be overridden
+    private void resetHistory() {
+        history = new PositionHistory();
+        history.push(board.getZobristKey() ^ Zobrist.side(team), true);
+    }
+
+    /**
+     * Cheap static evaluation for display, such as a spectator's evaluation
+     * bar; it reads a score the board keeps current and searches nothing
+     *
+     * @return centipawns from white's point of view: positive when white is better
+     */
+    public int getEvaluation() {
+        return board.getEvaluation();
+    }
+
+    /**
+     * @return moves by either side since the last capture or pawn move
+     */
+    public int getHalfmoveClock() {
+        return halfmoveClock;
     }
 
+    /**
+     * @return number of the current move, starting at 1 and counting up after each black move
+     */
+    public int getFullmoveNumber() {
+        return fullmoveNumber;
+    }
+
+    /**
+     * @return Zobrist key of the position: the board's piece placement plus
+     * the side to move
+     */
+    public long getZobristKey() {
+        return board.getZobristKey() ^ Zobrist.side(team);
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        if (this == object) return true;
+        if (object == null || getClass() != object.getClass()) return false;
+        ChessGame that = (ChessGame) object;
+        return team == that.team && Objects.equals(board, that.board);
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(getZobristKey());
+    }
+
+    /**
+     * Returns the position as of the last committed move, {@link #setBoard}
+     * or {@link #setTeamTurn}. Safe to call from any thread while another
+     * thread plays moves; changes made directly to {@link #getBoard()} only
+     * show up once one of those calls publishes a new snapshot.
+     *
+     * @return an immutable snapshot of the board and side to move
+     */
+    public BoardSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    private void publishSnapshot() {
+        snapshot = new BoardSnapshot(board, team);
+    }
 
     /**
      * Sets this game's chessboard with a given board
@@ -190,6 +447,9 @@ public class ChessGame {
      */
     public void setBoard(ChessBoard board) {
         this.board = board;
+        resetHistory();
+        legalMoves = null;
+        publishSnapshot();
     }
 
     /**
@@ -0,0 +1,41 @@
+package chess;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.util.Base64;
+
+/**
+ * Writes a {@link ChessGame} as the Base64 text of its {@link GameCodec}
+ * encoding instead of Gson's reflective object graph, so a game travels in
+ * a few dozen characters. {@link ChessGame} names it with
+ * {@link com.google.gson.annotations.JsonAdapter}, so any {@code Gson} uses
+ * it, and every game Gson reads is built by a constructor.
+ */
+class ChessGameAdapter extends TypeAdapter<ChessGame> {
+
+    @Override
+    public void write(JsonWriter out, ChessGame game) throws IOException {
+        if (game == null) {
+            out.nullValue();
+            return;
+        }
+        out.value(Base64.getEncoder().encodeToString(GameCodec.encode(game)));
+    }
+
+    @Override
+    public ChessGame read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        try {
+            return GameCodec.decode(Base64.getDecoder().decode(in.nextString()));
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Bad encoded game", e);
+        }
+    }
+}
@@ -9,6 +9,25 @@ import java.util.Objects;
  * signature of the existing methods.
  */
 public class ChessMove {
+    // one slot for "no promotion" plus QUEEN, BISHOP, KNIGHT and ROOK, which sit at ordinals 1-4
+    private static final int PROMOTION_SLOTS = 5;
+    private static final ChessMove[] MOVES = new ChessMove[Bitboards.SQUARES * Bitboards.SQUARES * PROMOTION_SLOTS];
+
+    static {
+        ChessPiece.PieceType[] types = ChessPiece.PieceType.values();
+        for (int from = 0; from < Bitboards.SQUARES; from++) {
+            for (int to = 0; to < Bitboards.SQUARES; to++) {
+                if (from == to) continue;
+                MOVES[index(from, to, null)] = new ChessMove(ChessPosition.of(from), ChessPosition.of(to), null);
+                if (!promotionGeometry(from, to)) continue;
+                for (int slot = 1; slot < PROMOTION_SLOTS; slot++) {
+                    ChessPiece.PieceType promotion = types[slot];
+                    MOVES[index(from, to, promotion)] = new ChessMove(ChessPosition.of(from), ChessPosition.of(to), promotion);
+                }
+            }
+        }
+    }
+
     private final ChessPosition startPosition;
     private final ChessPosition endPosition;
     private final ChessPiece.PieceType promotionPiece;
@@ -20,6 +39,41 @@ public class ChessMove {
         this.promotionPiece = promotionPiece;
     }
 
+    private static boolean promotionGeometry(int from, int to) {
+        int fromRow = Bitboards.row(from);
+        int toRow = Bitboards.row(to);
+        boolean forward = (fromRow == 7 && toRow == 8) || (fromRow == 2 && toRow == 1);
+        return forward && Math.abs(Bitboards.column(from) - Bitboards.column(to)) <= 1;
+    }
+
+    private static int index(int from, int to, ChessPiece.PieceType promotionPiece) {
+        return (from * Bitboards.SQUARES + to) * PROMOTION_SLOTS + (promotionPiece == null ? 0 : promotionPiece.ordinal());
+    }
+
+    /**
+     * Looks a move up in the table of every possible move, including pawn
+     * promotions, so move generation does not allocate
+     *
+     * @param from           0-63 starting square
+     * @param to             0-63 ending square
+     * @param promotionPiece type to promote to, or null
+     * @return the canonical move, or a new one if the combination is not in the table
+     */
+    public static ChessMove of(int from, int to, ChessPiece.PieceType promotionPiece) {
+        boolean tabled = promotionPiece == null || (promotionPiece.ordinal() > 0 && promotionPiece.ordinal() < PROMOTION_SLOTS);
+        ChessMove move = tabled ? MOVES[index(from, to, promotionPiece)] : null;
+        return move != null ? move : new ChessMove(ChessPosition.of(from), ChessPosition.of(to), promotionPiece);
+    }
+
+    public static ChessMove of(ChessPosition startPosition, ChessPosition endPosition,
+                               ChessPiece.PieceType promotionPiece) {
+        if (!Bitboards.onBoard(startPosition.getRow(), startPosition.getColumn())
+                || !Bitboards.onBoard(endPosition.getRow(), endPosition.getColumn())) {
+            return new ChessMove(startPosition, endPosition, promotionPiece);
+        }
+        return of(startPosition.getSquare(), endPosition.getSquare(), promotionPiece);
+    }
+
     /**
      * @return ChessPosition of starting location
      */
@@ -44,6 +98,20 @@ public class ChessMove {
         return promotionPiece;
     }
 
+    /**
+     * @return 0-63 index of the starting square
+     */
+    public int getStartSquare() {
+        return startPosition.getSquare();
+    }
+
+    /**
+     * @return 0-63 index of the ending square
+     */
+    public int getEndSquare() {
+        return endPosition.getSquare();
+    }
+
     @Override
     public boolean equals(Object object) {
         if (object == this) return true;
@@ -54,6 +122,7 @@ public class ChessMove {
 
     @Override
     public int hashCode() {
-        return Objects.hash(startPosition, endPosition, promotionPiece);
+        int promotion = promotionPiece == null ? 0 : promotionPiece.ordinal() + 1;
+        return (31 * Objects.hashCode(startPosition) + Objects.hashCode(endPosition)) * 31 + promotion;
     }
 }
@@ -1,7 +1,5 @@
 package chess;
 
-import java.util.Objects;
-
 /**
  * Represents a single square position on a chess board
  * <p>
@@ -10,6 +8,14 @@ import java.util.Objects;
  */
 public class ChessPosition {
 
+    private static final ChessPosition[] SQUARES = new ChessPosition[Bitboards.SQUARES];
+
+    static {
+        for (int square = 0; square < Bitboards.SQUARES; square++) {
+            SQUARES[square] = new ChessPosition(Bitboards.row(square), Bitboards.column(square));
+        }
+    }
+
     private final int row;
     private final int col;
     public ChessPosition(int row, int col) {
@@ -17,9 +23,34 @@ public class ChessPosition {
         this.col = col;
     }
 
+    /**
+     * Returns the shared instance for an on-board square, so hot paths do not
+     * allocate a position per square they look at
+     *
+     * @return the canonical position, or a new one if the square is off the board
+     */
+    public static ChessPosition of(int row, int col) {
+        return Bitboards.onBoard(row, col) ? SQUARES[Bitboards.square(row, col)] : new ChessPosition(row, col);
+    }
+
+    /**
+     * @param square 0-63 square index
+     * @return the canonical position for the square
+     */
+    public static ChessPosition of(int square) {
+        return SQUARES[square];
+    }
+
+    /**
+     * @return 0-63 index of this square, see {@link Bitboards}
+     */
+    public int getSquare() {
+        return Bitboards.square(row, col);
+    }
+
     @Override
     public int hashCode () {
-        return Objects.hash(row, col);
+        return 31 * row + col;
     }
 
     @Override
@@ -0,0 +1,266 @@
+package chess;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Reads and writes Forsyth-Edwards Notation, such as
+ * {@code rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b - - 0 1}.
+ * <p>
+ * This engine's rules have no castling or en passant, so those two fields
+ * are always written as {@code -} and are checked but otherwise ignored when
+ * read. The halfmove clock and fullmove number may be left off, as many
+ * tools do, and default to 0 and 1.
+ * <p>
+ * Text is read and written one character at a time, straight from a
+ * {@link CharSequence} or the ASCII bytes of a {@link ByteBuffer}, with no
+ * splitting or intermediate strings.
+ */
+final class Fen {
+
+    /**
+     * Piece letters indexed by {@link ChessPiece.PieceType} ordinal, as white writes them
+     */
+    private static final String LETTERS = "KQBNRP";
+
+    /**
+     * Letter of each {@link Bitboards#pieceIndex} and the piece of each letter
+     */
+    private static final char[] LETTER_OF = new char[Bitboards.PIECE_KINDS];
+    private static final ChessPiece[] PIECE_OF = new ChessPiece[128];
+
+    static {
+        for (int pieceIndex = 0; pieceIndex < Bitboards.PIECE_KINDS; pieceIndex++) {
+            char letter = LETTERS.charAt(Bitboards.typeOf(pieceIndex).ordinal());
+            if (Bitboards.colorOf(pieceIndex) == ChessGame.TeamColor.BLACK) letter = Character.toLowerCase(letter);
+            LETTER_OF[pieceIndex] = letter;
+            PIECE_OF[letter] = ChessPiece.of(Bitboards.colorOf(pieceIndex), Bitboards.typeOf(pieceIndex));
+        }
+    }
+
+    /**
+     * Longest FEN this engine can write: 71 characters of placement, the
+     * side to move and two empty fields, and both counters at ten digits
+     */
+    static final int MAX_LENGTH = 99;
+
+    private interface Sink {
+        void put(char c);
+    }
+
+    private Fen() {
+    }
+
+    static ChessGame read(CharSequence text) {
+        Reader reader = new Reader(text);
+        ChessGame game = reader.read();
+        if (reader.skipSpaces() != text.length()) throw reader.error("Unexpected text after the position");
+        return game;
+    }
+
+    /**
+     * Reads one FEN from the buffer's position, leaving the position just
+     * after it, so a buffer of newline-separated FENs can be read in a loop
+     */
+    static ChessGame read(ByteBuffer buffer) {
+        Reader reader = new Reader(new AsciiView(buffer));
+        ChessGame game = reader.read();
+        buffer.position(buffer.position() + reader.index);
+        return game;
+    }
+
+    static void write(ChessGame game, StringBuilder out) {
+        write(game, out::append);
+    }
+
+    static void write(ChessGame game, ByteBuffer out) {
+        write(game, c -> out.put((byte) c));
+    }
+
+    private static void write(ChessGame game, Sink out) {
+        ChessBoard board = game.getBoard();
+        for (int row = 8; row >= 1; row--) {
+            int empty = 0;
+            for (int col = 1; col <= 8; col++) {
+                ChessPiece piece = board.getPiece(Bitboards.square(row, col));
+                if (piece == null) {
+                    empty++;
+                    continue;
+                }
+                if (empty > 0) out.put((char) ('0' + empty));
+                empty = 0;
+                out.put(LETTER_OF[Bitboards.pieceIndex(piece)]);
+            }
+            if (empty > 0) out.put((char) ('0' + empty));
+            if (row > 1) out.put('/');
+        }
+        out.put(' ');
+        out.put(game.getTeamTurn() == ChessGame.TeamColor.WHITE ? 'w' : 'b');
+        out.put(' ');
+        out.put('-');
+        out.put(' ');
+        out.put('-');
+        out.put(' ');
+        writeNumber(game.getHalfmoveClock(), out);
+        out.put(' ');
+        writeNumber(game.getFullmoveNumber(), out);
+    }
+
+    private static void writeNumber(int value, Sink out) {
+        if (value >= 10) writeNumber(value / 10, out);
+        out.put((char) ('0' + value % 10));
+    }
+
+    private static final class Reader {
+        private final CharSequence text;
+        private int index;
+
+        Reader(CharSequence text) {
+            this.text = text;
+        }
+
+        ChessGame read() {
+            skipSpaces();
+            ChessBoard board = new ChessBoard();
+            readPlacement(board);
+            expectSpace();
+
+            ChessGame.TeamColor team = switch (next()) {
+                case 'w' -> ChessGame.TeamColor.WHITE;
+                case 'b' -> ChessGame.TeamColor.BLACK;
+                default -> throw error("Side to move must be w or b");
+            };
+            expectSpace();
+            readCastling();
+            expectSpace();
+            readEnPassant();
+
+            int halfmove = 0;
+            int fullmove = 1;
+            if (hasField()) {
+                expectSpace();
+                halfmove = readNumber();
+                if (hasField()) {
+                    expectSpace();
+                    fullmove = readNumber();
+                }
+            }
+            return new ChessGame(board, team, halfmove, fullmove);
+        }
+
+        private void readPlacement(ChessBoard board) {
+            for (int row = 8; row >= 1; row--) {
+                int col = 1;
+                while (col <= 8) {
+                    char c = next();
+                    if (c >= '1' && c <= '8') {
+                        col += c - '0';
+                        continue;
+                    }
+                    ChessPiece piece = c < PIECE_OF.length ? PIECE_OF[c] : null;
+                    if (piece == null) throw error("Unknown piece '" + c + "'");
+                    board.addPiece(Bitboards.square(row, col), piece);
+                    col++;
+                }
+                if (col != 9) throw error("Row " + row + " does not have 8 squares");
+                if (row > 1 && next() != '/') throw error("Expected '/' after row " + row);
+            }
+        }
+
+        private void readCastling() {
+            if (peek() == '-') {
+                index++;
+                return;
+            }
+            int start = index;
+            while (index < text.length() && "KQkq".indexOf(text.charAt(index)) >= 0) index++;
+            if (index == start) throw error("Castling rights must be - or some of KQkq");
+        }
+
+        private void readEnPassant() {
+            if (peek() == '-') {
+                index++;
+                return;
+            }
+            char file = next();
+            char rank = next();
+            if (file < 'a' || file > 'h' || (rank != '3' && rank != '6')) throw error("Bad en passant square");
+        }
+
+        private int readNumber() {
+            int start = index;
+            int value = 0;
+            while (index < text.length() && isDigit(text.charAt(index))) {
+                if (index - start == 9) throw error("Number is too large");
+                value = value * 10 + text.charAt(index++) - '0';
+            }
+            if (index == start) throw error("Expected a number");
+            return value;
+        }
+
+        /**
+         * @return True if another field follows on the same line
+         */
+        private boolean hasField() {
+            int ahead = index;
+            while (ahead < text.length() && text.charAt(ahead) == ' ') ahead++;
+            return ahead > index && ahead < text.length() && isDigit(text.charAt(ahead));
+        }
+
+        // ASCII only: Character.isDigit also takes digits of other scripts
+        private static boolean isDigit(char c) {
+            return c >= '0' && c <= '9';
+        }
+
+        private void expectSpace() {
+            if (peek() != ' ') throw error("Expected a space");
+            while (index < text.length() && text.charAt(index) == ' ') index++;
+        }
+
+        int skipSpaces() {
+            while (index < text.length() && Character.isWhitespace(text.charAt(index))) index++;
+            return index;
+        }
+
+        private char peek() {
+            return index < text.length() ? text.charAt(index) : '\0';
+        }
+
+        private char next() {
+            if (index >= text.length()) throw error("FEN ends early");
+            return text.charAt(index++);
+        }
+
+        IllegalArgumentException error(String message) {
+            return new IllegalArgumentException(message + " at index " + index + " of FEN");
+        }
+    }
+
+    /**
+     * The remaining bytes of a buffer as ASCII characters, read with absolute
+     * gets so the buffer's position is left alone
+     */
+    private record AsciiView(ByteBuffer buffer) implements CharSequence {
+
+        @Override
+        public int length() {
+            return buffer.remaining();
+        }
+
+        @Override
+        public char charAt(int index) {
+            return (char) (buffer.get(buffer.position() + index) & 0xFF);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            StringBuilder out = new StringBuilder(end - start);
+            for (int i = start; i < end; i++) out.append(charAt(i));
+            return out;
+        }
+
+        @Override
+        public String toString() {
+            return subSequence(0, length()).toString();
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package chess;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * Compact, versioned binary form of a {@link ChessGame}, for storing games
+ * and sending them between client and server.
+ * <p>
+ * Version 1 layout:
+ * <pre>
+ * byte     version ({@value #VERSION})
+ * byte     flags: bit 0 set when black is to move, other bits reserved
+ * long     occupancy bitboard, a1 in bit 0
+ * nibbles  {@link Bitboards#pieceIndex} of each occupied square from a1 up,
+ *          two per byte, low nibble first, padded to a whole byte
+ * varint   halfmove clock
+ * varint   fullmove number
+ * </pre>
+ * The start position takes 28 bytes, and a game with at most 32 pieces
+ * never takes more than 36. Castling and en passant rights have no bits,
+ * since the rules here have neither move; a later version can claim
+ * reserved flag bits for them.
+ * <p>
+ * A board on its own, as Gson writes one, is the version byte followed by
+ * the occupancy and piece nibbles.
+ */
+public final class GameCodec {
+
+    public static final int VERSION = 1;
+
+    /**
+     * Most bytes any game can take, with every square occupied and both
+     * counters at their largest
+     */
+    public static final int MAX_BYTES = 2 + Long.BYTES + Bitboards.SQUARES / 2 + 2 * 5;
+
+    private static final int BLACK_TO_MOVE = 1;
+
+    private GameCodec() {
+    }
+
+    public static byte[] encode(ChessGame game) {
+        ByteBuffer out = ByteBuffer.allocate(MAX_BYTES);
+        encode(game, out);
+        byte[] bytes = new byte[out.position()];
+        out.flip().get(bytes);
+        return bytes;
+    }
+
+    /**
+     * Writes the game at the buffer's position, which must have
+     * {@link #MAX_BYTES} remaining to be safe
+     */
+    public static void encode(ChessGame game, ByteBuffer out) {
+        out.put((byte) VERSION);
+        out.put((byte) (game.getTeamTurn() == ChessGame.TeamColor.BLACK ? BLACK_TO_MOVE : 0));
+        putPlacement(game.getBoard(), out);
+        putVarint(out, game.getHalfmoveClock());
+        putVarint(out, game.getFullmoveNumber());
+    }
+
+    static byte[] encode(ChessBoard board) {
+        ByteBuffer out = ByteBuffer.allocate(MAX_BYTES);
+        out.put((byte) VERSION);
+        putPlacement(board, out);
+        byte[] bytes = new byte[out.position()];
+        out.flip().get(bytes);
+        return bytes;
+    }
+
+    private static void putPlacement(ChessBoard board, ByteBuffer out) {
+        long occupied = board.getOccupancy();
+        out.putLong(occupied);
+
+        int pending = -1;
+        for (long rest = occupied; rest != 0; rest &= rest - 1) {
+            int pieceIndex = Bitboards.pieceIndex(board.getPiece(Long.numberOfTrailingZeros(rest)));
+            if (pending < 0) {
+                pending = pieceIndex;
+            } else {
+                out.put((byte) (pending | pieceIndex << 4));
+                pending = -1;
+            }
+        }
+        if (pending >= 0) out.put((byte) pending);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the bytes are not an encoded game
+     * or come from an unsupported version
+     */
+    public static ChessGame decode(byte[] bytes) {
+        return decode(ByteBuffer.wrap(bytes));
+    }
+
+    /**
+     * Reads a game from the buffer's position and moves the position past it
+     *
+     * @throws IllegalArgumentException if the bytes are not an encoded game
+     * or come from an unsupported version
+     */
+    public static ChessGame decode(ByteBuffer in) {
+        try {
+            checkVersion(in);
+            int flags = in.get();
+            ChessBoard board = getPlacement(in);
+            ChessGame.TeamColor team = (flags & BLACK_TO_MOVE) != 0 ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE;
+            return new ChessGame(board, team, getVarint(in), getVarint(in));
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Encoded game is truncated", e);
+        }
+    }
+
+    /**
+     * @throws IllegalArgumentException if the bytes are not an encoded board
+     */
+    static ChessBoard decodeBoard(byte[] bytes) {
+        ByteBuffer in = ByteBuffer.wrap(bytes);
+        try {
+            checkVersion(in);
+            return getPlacement(in);
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Encoded board is truncated", e);
+        }
+    }
+
+    private static void checkVersion(ByteBuffer in) {
+        int version = in.get();
+        if (version != VERSION) throw new IllegalArgumentException("Unsupported game encoding version " + version);
+    }
+
+    private static ChessBoard getPlacement(ByteBuffer in) {
+        long occupied = in.getLong();
+        ChessBoard board = new ChessBoard();
+        int packed = 0;
+        boolean high = false;
+        for (long rest = occupied; rest != 0; rest &= rest - 1) {
+            int pieceIndex;
+            if (high) {
+                pieceIndex = packed >>> 4;
+            } else {
+                packed = in.get() & 0xFF;
+                pieceIndex = packed & 0xF;
+            }
+            high = !high;
+            if (pieceIndex >= Bitboards.PIECE_KINDS) throw new IllegalArgumentException("Bad piece in encoded game");
+            board.addPiece(Long.numberOfTrailingZeros(rest), ChessPiece.of(pieceIndex));
+        }
+        return board;
+    }
+
+    // seven bits per byte, low bits first, high bit set on every byte but the last
+    private static void putVarint(ByteBuffer out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.put((byte) (value & 0x7F | 0x80));
+            value >>>= 7;
+        }
+        out.put((byte) value);
+    }
+
+    private static int getVarint(ByteBuffer in) {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = in.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) return value;
+        }
+        throw new IllegalArgumentException("Bad counter in encoded game");
+    }
+}
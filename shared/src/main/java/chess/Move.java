@@ -0,0 +1,101 @@
+package chess;
+
+/**
+ * Packs a move into a single {@code int} so move generation and search can
+ * work without allocating {@link ChessMove} objects.
+ * <p>
+ * Layout, from the low bits up: 6 bits starting square, 6 bits ending square,
+ * 3 bits promotion piece ({@link ChessPiece.PieceType} ordinal, 0 for none),
+ * then the flag bits. A packed move is never 0, so 0 is free to mean "no move".
+ */
+public final class Move {
+
+    public static final int NONE = 0;
+
+    public static final int CAPTURE = 1 << 15;
+    public static final int DOUBLE_PUSH = 1 << 16;
+
+    private static final int SQUARE_MASK = 0x3F;
+    private static final int PROMOTION_SHIFT = 12;
+    private static final int PROMOTION_MASK = 0x7;
+    // starting square, ending square and promotion: everything that makes two moves the same move
+    private static final int IDENTITY_MASK = (1 << 15) - 1;
+
+    private static final ChessPiece.PieceType[] TYPES = ChessPiece.PieceType.values();
+
+    private Move() {
+    }
+
+    /**
+     * @param from      0-63 starting square
+     * @param to        0-63 ending square
+     * @param promotion type to promote to, or null
+     * @param flags     any of {@link #CAPTURE} and {@link #DOUBLE_PUSH}
+     * @return the packed move
+     */
+    public static int encode(int from, int to, ChessPiece.PieceType promotion, int flags) {
+        int promotionBits = promotion == null ? 0 : promotion.ordinal();
+        return from | (to << 6) | (promotionBits << PROMOTION_SHIFT) | flags;
+    }
+
+    public static int encode(int from, int to, int flags) {
+        return from | (to << 6) | flags;
+    }
+
+    /**
+     * Packs a {@link ChessMove}. The result carries no flags, so compare it
+     * with generated moves through {@link #sameMove}.
+     *
+     * @return the packed move, or {@link #NONE} for a promotion to a king or
+     * pawn, which has no packed form and is never legal
+     */
+    public static int encode(ChessMove move) {
+        ChessPiece.PieceType promotion = move.getPromotionPiece();
+        if (promotion == ChessPiece.PieceType.KING || promotion == ChessPiece.PieceType.PAWN) return NONE;
+        return encode(move.getStartSquare(), move.getEndSquare(), promotion, 0);
+    }
+
+    public static int from(int move) {
+        return move & SQUARE_MASK;
+    }
+
+    public static int to(int move) {
+        return (move >>> 6) & SQUARE_MASK;
+    }
+
+    /**
+     * @return the promotion piece type, or null if the move is not a promotion
+     */
+    public static ChessPiece.PieceType promotion(int move) {
+        int bits = (move >>> PROMOTION_SHIFT) & PROMOTION_MASK;
+        return bits == 0 ? null : TYPES[bits];
+    }
+
+    public static boolean isPromotion(int move) {
+        return ((move >>> PROMOTION_SHIFT) & PROMOTION_MASK) != 0;
+    }
+
+    public static boolean isCapture(int move) {
+        return (move & CAPTURE) != 0;
+    }
+
+    /**
+     * @return True if both moves have the same squares and promotion, ignoring flags
+     */
+    public static boolean sameMove(int a, int b) {
+        return (a & IDENTITY_MASK) == (b & IDENTITY_MASK);
+    }
+
+    /**
+     * @return the canonical {@link ChessMove} for a packed move
+     */
+    public static ChessMove toChessMove(int move) {
+        return ChessMove.of(from(move), to(move), promotion(move));
+    }
+
+    public static String toString(int move) {
+        ChessMove chessMove = toChessMove(move);
+        return chessMove.getStartPosition() + "->" + chessMove.getEndPosition()
+                + (isPromotion(move) ? "=" + promotion(move) : "");
+    }
+}
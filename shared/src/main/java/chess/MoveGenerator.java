@@ -0,0 +1,278 @@
+package chess;
+
+import java.util.Arrays;
+
+/**
+ * Generates moves straight from the board's bitboards into a
+ * {@link MoveList}, either pseudo-legal ({@link #generate}) or legal
+ * ({@link #generateLegal}).
+ * <p>
+ * The legal generator never plays a move to test it. It finds the pieces
+ * giving check, the pieces pinned to their king and the squares a move must
+ * reach to answer a check once per position, then masks each piece's targets
+ * with them. Only the king's own moves are tested, against the squares the
+ * opponent would attack with the king lifted off the board.
+ * <p>
+ * The rules match {@link ChessPiece#pieceMoves}: no castling and no en
+ * passant, and pawns promote to a queen, rook, bishop or knight.
+ */
+public final class MoveGenerator {
+
+    private static final ChessPiece.PieceType[] PROMOTIONS = {
+            ChessPiece.PieceType.QUEEN,
+            ChessPiece.PieceType.ROOK,
+            ChessPiece.PieceType.BISHOP,
+            ChessPiece.PieceType.KNIGHT
+    };
+
+    private MoveGenerator() {
+    }
+
+    /**
+     * Adds the pseudo-legal moves of every piece of one team
+     */
+    public static void generate(ChessBoard board, ChessGame.TeamColor color, MoveList moves) {
+        for (long pieces = board.getOccupancy(color); pieces != 0; pieces &= pieces - 1) {
+            generate(board, Long.numberOfTrailingZeros(pieces), moves);
+        }
+    }
+
+    /**
+     * Adds the pseudo-legal moves of the piece on a square, if any
+     */
+    public static void generate(ChessBoard board, int square, MoveList moves) {
+        ChessPiece piece = board.getPiece(square);
+        if (piece == null) return;
+        addMoves(board, square, pseudoLegalTargets(board, square, piece), moves);
+    }
+
+    /**
+     * Adds the legal moves of every piece of one team
+     */
+    public static void generateLegal(ChessBoard board, ChessGame.TeamColor color, MoveList moves) {
+        generateLegal(board, color, board.getOccupancy(color), moves);
+    }
+
+    /**
+     * Adds the legal moves of the piece on a square, if any
+     */
+    public static void generateLegal(ChessBoard board, int square, MoveList moves) {
+        ChessPiece piece = board.getPiece(square);
+        if (piece != null) generateLegal(board, piece.getTeamColor(), Bitboards.bit(square), moves);
+    }
+
+    /**
+     * Adds the legal moves of the pieces of {@code color} that stand on {@code fromSquares}
+     */
+    public static void generateLegal(ChessBoard board, ChessGame.TeamColor color, long fromSquares, MoveList moves) {
+        LegalMasks masks = new LegalMasks(board, color);
+        for (long pieces = fromSquares & board.getOccupancy(color); pieces != 0; pieces &= pieces - 1) {
+            int from = Long.numberOfTrailingZeros(pieces);
+            addMoves(board, from, masks.targets(from), moves);
+        }
+    }
+
+    /**
+     * Fills {@code targets} with the legal destination squares of every
+     * piece of a team, indexed by the square the piece stands on, working out
+     * checks and pins once for the whole team. Squares without a piece of the
+     * team get 0. A pawn reaching the last row may promote to any piece, so
+     * its destination stands for all four promotions.
+     *
+     * @param targets array of {@value Bitboards#SQUARES} bitboards to fill
+     */
+    public static void legalTargets(ChessBoard board, ChessGame.TeamColor color, long[] targets) {
+        Arrays.fill(targets, 0, Bitboards.SQUARES, 0L);
+        LegalMasks masks = new LegalMasks(board, color);
+        for (long pieces = board.getOccupancy(color); pieces != 0; pieces &= pieces - 1) {
+            int from = Long.numberOfTrailingZeros(pieces);
+            targets[from] = masks.targets(from);
+        }
+    }
+
+    /**
+     * Checks one move, such as one read from a book, without generating any
+     * others or allocating: the piece must be {@code color}'s and able to
+     * reach the target, a pawn must promote exactly when it reaches the last
+     * row, and the move must not leave its own king attacked
+     *
+     * @param move packed move; its flags are ignored
+     * @return the move with its flags set if it is legal, otherwise {@link Move#NONE}
+     */
+    public static int legalMove(ChessBoard board, ChessGame.TeamColor color, int move) {
+        int from = Move.from(move);
+        int to = Move.to(move);
+        ChessPiece piece = board.getPiece(from);
+        if (piece == null || piece.getTeamColor() != color) return Move.NONE;
+        long target = Bitboards.bit(to);
+        if ((pseudoLegalTargets(board, from, piece) & target) == 0) return Move.NONE;
+
+        int flags = (board.getOccupancy(color.opponent()) & target) != 0 ? Move.CAPTURE : 0;
+        int legal = Move.encode(from, to, flags);
+        if (piece.getPieceType() == ChessPiece.PieceType.PAWN) {
+            if (Bitboards.row(to) == (color == ChessGame.TeamColor.WHITE ? 8 : 1)) {
+                legal = Move.NONE;
+                for (ChessPiece.PieceType promotion : PROMOTIONS) {
+                    if (Move.sameMove(move, Move.encode(from, to, promotion, 0))) legal = Move.encode(from, to, promotion, flags);
+                }
+            } else if (Math.abs(to - from) == 16) {
+                legal |= Move.DOUBLE_PUSH;
+            }
+        }
+        if (legal == Move.NONE || !Move.sameMove(move, legal)) return Move.NONE;
+
+        // the captured piece stays in the bitboards, so its attacks are masked off
+        int king = piece.getPieceType() == ChessPiece.PieceType.KING ? to : board.kingSquare(color);
+        long occupied = board.getOccupancy() & ~Bitboards.bit(from) | target;
+        if (king >= 0 && (board.attackersOf(king, color.opponent(), occupied) & ~target) != 0) return Move.NONE;
+        return legal;
+    }
+
+    /**
+     * Stops at the first legal move it finds, so a position with plenty of
+     * moves costs a couple of lookups
+     *
+     * @return True if the team has at least one legal move
+     */
+    public static boolean hasLegalMove(ChessBoard board, ChessGame.TeamColor color) {
+        LegalMasks masks = new LegalMasks(board, color);
+        if (masks.king >= 0 && masks.targets(masks.king) != 0) return true;
+        for (long pieces = board.getOccupancy(color); pieces != 0; pieces &= pieces - 1) {
+            if (masks.targets(Long.numberOfTrailingZeros(pieces)) != 0) return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return the squares a non-pawn piece on {@code square} attacks, given the board occupancy
+     */
+    static long attacks(ChessPiece.PieceType type, int square, long occupied) {
+        return switch (type) {
+            case KING -> Attacks.king(square);
+            case KNIGHT -> Attacks.knight(square);
+            case BISHOP -> Attacks.bishop(square, occupied);
+            case ROOK -> Attacks.rook(square, occupied);
+            case QUEEN -> Attacks.queen(square, occupied);
+            case PAWN -> throw new IllegalArgumentException("Pawn attacks depend on color");
+        };
+    }
+
+    private static long pseudoLegalTargets(ChessBoard board, int from, ChessPiece piece) {
+        ChessGame.TeamColor color = piece.getTeamColor();
+        if (piece.getPieceType() == ChessPiece.PieceType.PAWN) return pawnTargets(board, from, color);
+        return attacks(piece.getPieceType(), from, board.getOccupancy()) & ~board.getOccupancy(color);
+    }
+
+    private static long pawnTargets(ChessBoard board, int from, ChessGame.TeamColor color) {
+        long empty = ~board.getOccupancy();
+        long targets = Attacks.pawn(color, from) & board.getOccupancy(color.opponent());
+
+        int forward = color == ChessGame.TeamColor.WHITE ? 8 : -8;
+        int ahead = from + forward;
+        if (ahead < 0 || ahead >= Bitboards.SQUARES || (empty & Bitboards.bit(ahead)) == 0) return targets;
+        targets |= Bitboards.bit(ahead);
+
+        int startRow = color == ChessGame.TeamColor.WHITE ? 2 : 7;
+        if (Bitboards.row(from) == startRow && (empty & Bitboards.bit(ahead + forward)) != 0) {
+            targets |= Bitboards.bit(ahead + forward);
+        }
+        return targets;
+    }
+
+    /**
+     * Turns a bitboard of destinations into packed moves, flagging captures and
+     * double pushes and expanding pawn moves to the last row into promotions
+     */
+    private static void addMoves(ChessBoard board, int from, long targets, MoveList moves) {
+        ChessPiece piece = board.getPiece(from);
+        long enemies = board.getOccupancy(piece.getTeamColor().opponent());
+        boolean pawn = piece.getPieceType() == ChessPiece.PieceType.PAWN;
+        int lastRow = piece.getTeamColor() == ChessGame.TeamColor.WHITE ? 8 : 1;
+
+        for (; targets != 0; targets &= targets - 1) {
+            int to = Long.numberOfTrailingZeros(targets);
+            int flags = (enemies & Bitboards.bit(to)) != 0 ? Move.CAPTURE : 0;
+            if (!pawn) {
+                moves.add(Move.encode(from, to, flags));
+            } else if (Bitboards.row(to) == lastRow) {
+                for (ChessPiece.PieceType promotion : PROMOTIONS) moves.add(Move.encode(from, to, promotion, flags));
+            } else {
+                moves.add(Move.encode(from, to, Math.abs(to - from) == 16 ? flags | Move.DOUBLE_PUSH : flags));
+            }
+        }
+    }
+
+    /**
+     * What one team's king needs from every move in a position: the squares
+     * that answer a check and the pieces pinned against the king. Computed once,
+     * then {@link #targets} gives any piece's legal destinations.
+     */
+    private static final class LegalMasks {
+        private final ChessBoard board;
+        private final ChessGame.TeamColor enemy;
+        private final int king;
+        private final long own;
+        private final long occupied;
+        private final long evasions;
+        private final long pinned;
+
+        LegalMasks(ChessBoard board, ChessGame.TeamColor color) {
+            this.board = board;
+            enemy = color.opponent();
+            king = board.kingSquare(color);
+            own = board.getOccupancy(color);
+            occupied = board.getOccupancy();
+
+            if (king < 0) {
+                // without a king nothing can be left in check
+                evasions = -1L;
+                pinned = 0L;
+                return;
+            }
+            long checkers = board.attackersOf(king, enemy, occupied);
+            evasions = switch (Long.bitCount(checkers)) {
+                case 0 -> -1L;
+                case 1 -> checkers | Attacks.between(king, Long.numberOfTrailingZeros(checkers));
+                default -> 0L;
+            };
+            pinned = pinnedPieces();
+        }
+
+        /**
+         * @return own pieces that are the only blocker between their king and an enemy slider
+         */
+        private long pinnedPieces() {
+            long queens = board.getBitboard(enemy, ChessPiece.PieceType.QUEEN);
+            long enemies = board.getOccupancy(enemy);
+            long snipers = (Attacks.rook(king, enemies) & (board.getBitboard(enemy, ChessPiece.PieceType.ROOK) | queens))
+                    | (Attacks.bishop(king, enemies) & (board.getBitboard(enemy, ChessPiece.PieceType.BISHOP) | queens));
+
+            long pins = 0L;
+            for (; snipers != 0; snipers &= snipers - 1) {
+                long blockers = Attacks.between(king, Long.numberOfTrailingZeros(snipers)) & occupied;
+                if (Long.bitCount(blockers) == 1 && (blockers & own) != 0) pins |= blockers;
+            }
+            return pins;
+        }
+
+        /**
+         * @return legal destinations of the own piece on {@code from}
+         */
+        long targets(int from) {
+            if (from == king) {
+                long withoutKing = occupied & ~Bitboards.bit(king);
+                long safe = 0L;
+                for (long targets = Attacks.king(king) & ~own; targets != 0; targets &= targets - 1) {
+                    int to = Long.numberOfTrailingZeros(targets);
+                    if (board.attackersOf(to, enemy, withoutKing) == 0) safe |= Bitboards.bit(to);
+                }
+                return safe;
+            }
+            if (evasions == 0) return 0L;
+
+            long targets = pseudoLegalTargets(board, from, board.getPiece(from)) & evasions;
+            if ((pinned & Bitboards.bit(from)) != 0) targets &= Attacks.line(king, from);
+            return targets;
+        }
+    }
+}
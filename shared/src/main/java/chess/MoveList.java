@@ -0,0 +1,76 @@
+package chess;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+
+/**
+ * A growable list of packed {@link Move}s backed by a primitive array.
+ * Callers keep one list per search ply (or per request) and {@link #clear()}
+ * it between uses, so generating moves does not allocate.
+ */
+public final class MoveList {
+
+    private int[] moves;
+    private int size;
+
+    public MoveList() {
+        this(256);
+    }
+
+    public MoveList(int capacity) {
+        moves = new int[capacity];
+    }
+
+    public void add(int move) {
+        if (size == moves.length) moves = Arrays.copyOf(moves, moves.length * 2);
+        moves[size++] = move;
+    }
+
+    public int get(int index) {
+        return moves[index];
+    }
+
+    public void set(int index, int move) {
+        moves[index] = move;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Drops every move past the first {@code newSize}
+     */
+    public void truncate(int newSize) {
+        size = newSize;
+    }
+
+    /**
+     * @return the listed move with the same squares and promotion as {@code move}, or {@link Move#NONE}
+     */
+    public int find(int move) {
+        for (int i = 0; i < size; i++) {
+            if (Move.sameMove(moves[i], move)) return moves[i];
+        }
+        return Move.NONE;
+    }
+
+    /**
+     * Copies the moves into a collection of {@link ChessMove}s, for callers of
+     * the object-based API
+     */
+    public Collection<ChessMove> toChessMoves() {
+        HashSet<ChessMove> chessMoves = new HashSet<>(size * 2);
+        for (int i = 0; i < size; i++) chessMoves.add(Move.toChessMove(moves[i]));
+        return chessMoves;
+    }
+}
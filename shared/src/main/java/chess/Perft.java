@@ -0,0 +1,240 @@
+package chess;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Counts the leaf nodes of the legal move tree to a fixed depth (perft).
+ * <p>
+ * Counts are the standard check for move generation and a repeatable unit of
+ * work for load tests. The serial count plays moves on one copy of the board
+ * and counts the last ply in bulk from the size of its move list. The
+ * parallel count gives each root move its own board copy and fork/join task,
+ * so it returns exactly the serial counts. Either one can use a {@link Cache}
+ * to count transposed subtrees only once.
+ */
+public final class Perft {
+
+    private Perft() {
+    }
+
+    /**
+     * Node counts of one perft run
+     *
+     * @param divide       leaf count below each root move, in generation order
+     * @param nodes        total leaf count
+     * @param elapsedNanos wall time the count took
+     */
+    public record Result(Map<ChessMove, Long> divide,
+                         long nodes,
+                         long elapsedNanos) {
+
+        public double nodesPerSecond() {
+            return elapsedNanos == 0 ? 0 : nodes * 1e9 / elapsedNanos;
+        }
+    }
+
+    /**
+     * @param game  the position to start from; it is not modified
+     * @param depth number of plies to expand
+     * @return number of leaf nodes at the given depth
+     */
+    public static long perft(ChessGame game, int depth) {
+        return perft(game, depth, null);
+    }
+
+    /**
+     * @param cache subtree counts to reuse and fill, or null
+     */
+    public static long perft(ChessGame game, int depth, Cache cache) {
+        return new Counter(game.getBoard(), cache).count(game.getTeamTurn(), depth);
+    }
+
+    /**
+     * Counts the leaf nodes below each root move, which is how a mismatch is
+     * narrowed down to the move generation bug behind it. At depth 0 the only
+     * node is the root, so the breakdown is empty and the count is 1.
+     */
+    public static Result divide(ChessGame game, int depth) {
+        return divide(game, depth, null);
+    }
+
+    /**
+     * @param cache subtree counts to reuse and fill, or null
+     */
+    public static Result divide(ChessGame game, int depth, Cache cache) {
+        long start = System.nanoTime();
+        if (depth < 1) return rootOnly(start);
+        ChessGame.TeamColor color = game.getTeamTurn();
+        Counter counter = new Counter(game.getBoard(), cache);
+        MoveList moves = new MoveList();
+        MoveGenerator.generateLegal(counter.board, color, moves);
+
+        Map<ChessMove, Long> divide = new LinkedHashMap<>();
+        long nodes = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            counter.board.makeMove(moves.get(i));
+            long count = counter.count(color.opponent(), depth - 1);
+            counter.board.unmakeMove();
+            divide.put(Move.toChessMove(moves.get(i)), count);
+            nodes += count;
+        }
+        return new Result(Collections.unmodifiableMap(divide), nodes, System.nanoTime() - start);
+    }
+
+    /**
+     * Counts every root move's subtree as its own task on the common pool
+     */
+    public static Result parallelDivide(ChessGame game, int depth) {
+        return parallelDivide(game, depth, ForkJoinPool.commonPool(), null);
+    }
+
+    /**
+     * @param pool  pool to run the root move tasks on
+     * @param cache subtree counts shared by every task, or null
+     */
+    public static Result parallelDivide(ChessGame game, int depth, ForkJoinPool pool, Cache cache) {
+        long start = System.nanoTime();
+        if (depth < 1) return rootOnly(start);
+        ChessGame.TeamColor color = game.getTeamTurn();
+        ChessBoard root = new ChessBoard(game.getBoard());
+        MoveList moves = new MoveList();
+        MoveGenerator.generateLegal(root, color, moves);
+
+        List<RootMove> tasks = new ArrayList<>(moves.size());
+        for (int i = 0; i < moves.size(); i++) {
+            tasks.add(new RootMove(root, moves.get(i), color.opponent(), depth - 1, cache));
+        }
+        pool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(tasks)));
+
+        Map<ChessMove, Long> divide = new LinkedHashMap<>();
+        long nodes = 0;
+        for (RootMove task : tasks) {
+            long count = task.join();
+            divide.put(Move.toChessMove(task.move), count);
+            nodes += count;
+        }
+        return new Result(Collections.unmodifiableMap(divide), nodes, System.nanoTime() - start);
+    }
+
+    private static Result rootOnly(long start) {
+        return new Result(Map.of(), 1, System.nanoTime() - start);
+    }
+
+    private static final class RootMove extends RecursiveTask<Long> {
+        private static final long serialVersionUID = 1L;
+
+        // tasks are never serialized; the shared board and cache stay out of it
+        private final transient ChessBoard root;
+        private final int move;
+        private final ChessGame.TeamColor color;
+        private final int depth;
+        private final transient Cache cache;
+
+        RootMove(ChessBoard root, int move, ChessGame.TeamColor color, int depth, Cache cache) {
+            this.root = root;
+            this.move = move;
+            this.color = color;
+            this.depth = depth;
+            this.cache = cache;
+        }
+
+        @Override
+        protected Long compute() {
+            Counter counter = new Counter(root, cache);
+            counter.board.makeMove(move);
+            return counter.count(color, depth);
+        }
+    }
+
+    /**
+     * Serial counter with its own board copy and one move list per ply
+     */
+    private static final class Counter {
+        private final ChessBoard board;
+        private final Cache cache;
+        private MoveList[] moveLists = new MoveList[0];
+
+        Counter(ChessBoard board, Cache cache) {
+            this.board = new ChessBoard(board);
+            this.cache = cache;
+        }
+
+        long count(ChessGame.TeamColor color, int depth) {
+            if (depth <= 0) return 1;
+            if (moveLists.length < depth) {
+                moveLists = new MoveList[depth];
+                for (int i = 0; i < depth; i++) moveLists[i] = new MoveList();
+            }
+            return search(color, depth);
+        }
+
+        private long search(ChessGame.TeamColor color, int depth) {
+            long key = board.getZobristKey() ^ Zobrist.side(color);
+            if (cache != null && depth > 1) {
+                long cached = cache.get(key, depth);
+                if (cached >= 0) return cached;
+            }
+
+            MoveList moves = moveLists[depth - 1];
+            moves.clear();
+            MoveGenerator.generateLegal(board, color, moves);
+            if (depth == 1) return moves.size();
+
+            long nodes = 0;
+            for (int i = 0; i < moves.size(); i++) {
+                board.makeMove(moves.get(i));
+                nodes += search(color.opponent(), depth - 1);
+                board.unmakeMove();
+            }
+            if (cache != null) cache.put(key, depth, nodes);
+            return nodes;
+        }
+    }
+
+    /**
+     * Fixed-size table of subtree counts keyed by position and depth, safe to
+     * share between threads without locks. Each entry is two longs, the key
+     * XORed with the data and the data itself, so a torn read fails the check
+     * and is treated as a miss. New counts always replace old ones.
+     */
+    public static final class Cache {
+        private static final int DEPTH_BITS = 8;
+
+        private final long[] table;
+        private final int mask;
+
+        /**
+         * @param megabytes memory to use, rounded down to a power of two number of entries
+         */
+        public Cache(int megabytes) {
+            if (megabytes < 1 || megabytes > 8192) throw new IllegalArgumentException("Cache size must be 1-8192 MB");
+            int entries = (int) Long.highestOneBit((long) megabytes * (1 << 20) / 16);
+            table = new long[entries * 2];
+            mask = entries - 1;
+        }
+
+        /**
+         * @return the stored count, or -1 if there is none
+         */
+        long get(long key, int depth) {
+            int index = ((int) key & mask) * 2;
+            long data = table[index + 1];
+            if ((table[index] ^ data) != key || (data & ((1 << DEPTH_BITS) - 1)) != depth) return -1;
+            return data >>> DEPTH_BITS;
+        }
+
+        void put(long key, int depth, long nodes) {
+            int index = ((int) key & mask) * 2;
+            long data = nodes << DEPTH_BITS | depth;
+            table[index] = key ^ data;
+            table[index + 1] = data;
+        }
+    }
+}
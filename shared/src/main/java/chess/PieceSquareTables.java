@@ -0,0 +1,168 @@
+package chess;
+
+/**
+ * Material plus piece-square values in centipawns for every piece on every
+ * square, in a middlegame and an endgame version, from white's point of
+ * view (black pieces count negative).
+ * <p>
+ * {@link ChessBoard} adds and subtracts these as pieces come and go, so its
+ * evaluation is always current and reading it costs nothing. The two scores
+ * are blended by the game phase, which falls from {@value #MAX_PHASE} with
+ * all minor and major pieces on the board to 0 with only kings and pawns.
+ * <p>
+ * The tables follow the well-known "simplified evaluation function": pieces
+ * are worth more in the centre, pawns more as they advance, and the king
+ * hides in the middlegame but walks to the centre in the endgame.
+ * <p>
+ * Only {@link #material} is public, so the engine's piece values are the
+ * ones the board's evaluation is built from.
+ */
+public final class PieceSquareTables {
+
+    static final int MAX_PHASE = 24;
+
+    /**
+     * Phase weight of each piece, indexed by {@link ChessPiece.PieceType} ordinal
+     */
+    private static final int[] PHASE_WEIGHTS = {0, 4, 1, 1, 2, 0};
+    private static final int[] MATERIAL = {0, 900, 330, 320, 500, 100};
+
+    // drawn with row 8 at the top, as white sees the board
+    private static final int[] KING_MIDDLEGAME = {
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -20, -30, -30, -40, -40, -30, -30, -20,
+            -10, -20, -20, -20, -20, -20, -20, -10,
+            20, 20, 0, 0, 0, 0, 20, 20,
+            20, 30, 10, 0, 0, 10, 30, 20
+    };
+
+    private static final int[] KING_ENDGAME = {
+            -50, -40, -30, -20, -20, -30, -40, -50,
+            -30, -20, -10, 0, 0, -10, -20, -30,
+            -30, -10, 20, 30, 30, 20, -10, -30,
+            -30, -10, 30, 40, 40, 30, -10, -30,
+            -30, -10, 30, 40, 40, 30, -10, -30,
+            -30, -10, 20, 30, 30, 20, -10, -30,
+            -30, -30, 0, 0, 0, 0, -30, -30,
+            -50, -30, -30, -30, -30, -30, -30, -50
+    };
+
+    private static final int[] QUEEN = {
+            -20, -10, -10, -5, -5, -10, -10, -20,
+            -10, 0, 0, 0, 0, 0, 0, -10,
+            -10, 0, 5, 5, 5, 5, 0, -10,
+            -5, 0, 5, 5, 5, 5, 0, -5,
+            0, 0, 5, 5, 5, 5, 0, -5,
+            -10, 5, 5, 5, 5, 5, 0, -10,
+            -10, 0, 5, 0, 0, 0, 0, -10,
+            -20, -10, -10, -5, -5, -10, -10, -20
+    };
+
+    private static final int[] BISHOP = {
+            -20, -10, -10, -10, -10, -10, -10, -20,
+            -10, 0, 0, 0, 0, 0, 0, -10,
+            -10, 0, 5, 10, 10, 5, 0, -10,
+            -10, 5, 5, 10, 10, 5, 5, -10,
+            -10, 0, 10, 10, 10, 10, 0, -10,
+            -10, 10, 10, 10, 10, 10, 10, -10,
+            -10, 5, 0, 0, 0, 0, 5, -10,
+            -20, -10, -10, -10, -10, -10, -10, -20
+    };
+
+    private static final int[] KNIGHT = {
+            -50, -40, -30, -30, -30, -30, -40, -50,
+            -40, -20, 0, 0, 0, 0, -20, -40,
+            -30, 0, 10, 15, 15, 10, 0, -30,
+            -30, 5, 15, 20, 20, 15, 5, -30,
+            -30, 0, 15, 20, 20, 15, 0, -30,
+            -30, 5, 10, 15, 15, 10, 5, -30,
+            -40, -20, 0, 5, 5, 0, -20, -40,
+            -50, -40, -30, -30, -30, -30, -40, -50
+    };
+
+    private static final int[] ROOK = {
+            0, 0, 0, 0, 0, 0, 0, 0,
+            5, 10, 10, 10, 10, 10, 10, 5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            0, 0, 0, 5, 5, 0, 0, 0
+    };
+
+    private static final int[] PAWN_MIDDLEGAME = {
+            0, 0, 0, 0, 0, 0, 0, 0,
+            50, 50, 50, 50, 50, 50, 50, 50,
+            10, 10, 20, 30, 30, 20, 10, 10,
+            5, 5, 10, 25, 25, 10, 5, 5,
+            0, 0, 0, 20, 20, 0, 0, 0,
+            5, -5, -10, 0, 0, -10, -5, 5,
+            5, 10, 10, -20, -20, 10, 10, 5,
+            0, 0, 0, 0, 0, 0, 0, 0
+    };
+
+    private static final int[] PAWN_ENDGAME = {
+            0, 0, 0, 0, 0, 0, 0, 0,
+            80, 80, 80, 80, 80, 80, 80, 80,
+            50, 50, 50, 50, 50, 50, 50, 50,
+            30, 30, 30, 30, 30, 30, 30, 30,
+            15, 15, 15, 15, 15, 15, 15, 15,
+            5, 5, 5, 5, 5, 5, 5, 5,
+            0, 0, 0, 0, 0, 0, 0, 0,
+            0, 0, 0, 0, 0, 0, 0, 0
+    };
+
+    private static final int[][] MIDDLEGAME_TABLES = {KING_MIDDLEGAME, QUEEN, BISHOP, KNIGHT, ROOK, PAWN_MIDDLEGAME};
+    private static final int[][] ENDGAME_TABLES = {KING_ENDGAME, QUEEN, BISHOP, KNIGHT, ROOK, PAWN_ENDGAME};
+
+    private static final int[][] MIDDLEGAME = new int[Bitboards.PIECE_KINDS][Bitboards.SQUARES];
+    private static final int[][] ENDGAME = new int[Bitboards.PIECE_KINDS][Bitboards.SQUARES];
+
+    static {
+        for (int pieceIndex = 0; pieceIndex < Bitboards.PIECE_KINDS; pieceIndex++) {
+            int type = Bitboards.typeOf(pieceIndex).ordinal();
+            boolean white = Bitboards.colorOf(pieceIndex) == ChessGame.TeamColor.WHITE;
+            for (int square = 0; square < Bitboards.SQUARES; square++) {
+                // the tables list row 8 first; black reads them upside down
+                int entry = white ? square ^ 56 : square;
+                int sign = white ? 1 : -1;
+                MIDDLEGAME[pieceIndex][square] = sign * (MATERIAL[type] + MIDDLEGAME_TABLES[type][entry]);
+                ENDGAME[pieceIndex][square] = sign * (MATERIAL[type] + ENDGAME_TABLES[type][entry]);
+            }
+        }
+    }
+
+    private PieceSquareTables() {
+    }
+
+    /**
+     * @return the piece's material value in centipawns, without any square bonus
+     */
+    public static int material(ChessPiece.PieceType type) {
+        return MATERIAL[type.ordinal()];
+    }
+
+    static int middlegame(int pieceIndex, int square) {
+        return MIDDLEGAME[pieceIndex][square];
+    }
+
+    static int endgame(int pieceIndex, int square) {
+        return ENDGAME[pieceIndex][square];
+    }
+
+    static int phase(int pieceIndex) {
+        return PHASE_WEIGHTS[pieceIndex % 6];
+    }
+
+    /**
+     * Blends the middlegame and endgame scores by how much material is left
+     */
+    static int taper(int middlegame, int endgame, int phase) {
+        int clamped = Math.min(phase, MAX_PHASE);
+        return (middlegame * clamped + endgame * (MAX_PHASE - clamped)) / MAX_PHASE;
+    }
+}
@@ -0,0 +1,104 @@
+package chess;
+
+import java.util.Arrays;
+
+/**
+ * The positions of a game as a stack of Zobrist keys (board and side to
+ * move), for detecting repetitions.
+ * <p>
+ * A capture or pawn move can never be undone, so no position before it can
+ * come back. Each entry records how many reversible plies led up to it, and
+ * a repetition check only looks back that far, and only at every other
+ * entry, since a position with the other side to move is never the same
+ * position. A check costs at most one compare per two plies since the last
+ * capture or pawn move, however long the game.
+ * <p>
+ * {@link ChessGame} keeps one for the rules, and the search copies it and
+ * pushes and pops its own moves on top, so repetitions across the game and
+ * the search line are found the same way.
+ */
+public final class PositionHistory {
+
+    private long[] keys = new long[64];
+    private int[] reversiblePlies = new int[64];
+    private int size;
+
+    public PositionHistory() {
+    }
+
+    public PositionHistory(PositionHistory other) {
+        keys = Arrays.copyOf(other.keys, Math.max(other.size, 16) * 2);
+        reversiblePlies = Arrays.copyOf(other.reversiblePlies, keys.length);
+        size = other.size;
+    }
+
+    /**
+     * Records the position reached by a move
+     *
+     * @param key          Zobrist key of the position, side to move included
+     * @param irreversible True if the move was a capture or pawn move, or
+     *                     this is the first position known
+     */
+    public void push(long key, boolean irreversible) {
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            reversiblePlies = Arrays.copyOf(reversiblePlies, size * 2);
+        }
+        keys[size] = key;
+        reversiblePlies[size] = irreversible || size == 0 ? 0 : reversiblePlies[size - 1] + 1;
+        size++;
+    }
+
+    /**
+     * Forgets the most recent position, as when a search takes a move back
+     */
+    public void pop() {
+        size--;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * @return number of positions recorded
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return how many times the current position occurred before, since
+     * the last capture or pawn move
+     */
+    public int repetitions() {
+        return count(Integer.MAX_VALUE);
+    }
+
+    /**
+     * @return True if the current position occurred before; a search can
+     * score it as a draw, since either side could repeat it again
+     */
+    public boolean isRepetition() {
+        return count(1) >= 1;
+    }
+
+    /**
+     * @return True if the current position has now occurred three times
+     */
+    public boolean isThreefold() {
+        return count(2) >= 2;
+    }
+
+    private int count(int enough) {
+        if (size == 0) return 0;
+        int top = size - 1;
+        long key = keys[top];
+        int oldest = top - reversiblePlies[top];
+        int found = 0;
+        for (int i = top - 2; i >= oldest && found < enough; i -= 2) {
+            if (keys[i] == key) found++;
+        }
+        return found;
+    }
+}
@@ -0,0 +1,52 @@
+package chess;
+
+/**
+ * Random keys for Zobrist hashing. A position's key is the XOR of one key per
+ * (piece, square) pair on the board, plus {@link #SIDE_TO_MOVE} when black is
+ * to move, so adding, removing or moving a piece updates it in O(1).
+ * <p>
+ * The keys come from a fixed-seed SplitMix64 sequence, so they are the same
+ * in every JVM and can be stored in files.
+ */
+public final class Zobrist {
+
+    public static final long SIDE_TO_MOVE;
+
+    private static final long[][] PIECE_SQUARE = new long[Bitboards.PIECE_KINDS][Bitboards.SQUARES];
+
+    static {
+        long state = 0x2545F4914F6CDD1DL;
+        for (long[] keys : PIECE_SQUARE) {
+            for (int square = 0; square < Bitboards.SQUARES; square++) {
+                state += 0x9E3779B97F4A7C15L;
+                keys[square] = mix(state);
+            }
+        }
+        state += 0x9E3779B97F4A7C15L;
+        SIDE_TO_MOVE = mix(state);
+    }
+
+    private Zobrist() {
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * @param pieceIndex bitboard index of the piece, see {@link Bitboards#pieceIndex}
+     * @param square     0-63 square index
+     */
+    public static long piece(int pieceIndex, int square) {
+        return PIECE_SQUARE[pieceIndex][square];
+    }
+
+    /**
+     * @return the key to XOR in for the given side to move
+     */
+    public static long side(ChessGame.TeamColor teamTurn) {
+        return teamTurn == ChessGame.TeamColor.BLACK ? SIDE_TO_MOVE : 0L;
+    }
+}
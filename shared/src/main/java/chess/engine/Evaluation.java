@@ -0,0 +1,34 @@
+package chess.engine;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessPiece;
+import chess.PieceSquareTables;
+
+/**
+ * Static evaluation of a position in centipawns, from the point of view of
+ * the side to move, and the piece values used to order captures.
+ */
+public final class Evaluation {
+
+    private Evaluation() {
+    }
+
+    /**
+     * @return the piece's value in centipawns, the same material the board's evaluation counts
+     */
+    public static int value(ChessPiece.PieceType type) {
+        return PieceSquareTables.material(type);
+    }
+
+    /**
+     * Reads the board's incrementally updated evaluation, so a call costs the
+     * same however many pieces are left
+     *
+     * @return centipawns for {@code sideToMove}
+     */
+    public static int evaluate(ChessBoard board, ChessGame.TeamColor sideToMove) {
+        int white = board.getEvaluation();
+        return sideToMove == ChessGame.TeamColor.WHITE ? white : -white;
+    }
+}
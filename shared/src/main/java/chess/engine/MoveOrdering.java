@@ -0,0 +1,133 @@
+package chess.engine;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessPiece;
+import chess.Move;
+import chess.MoveList;
+
+import java.util.Arrays;
+
+/**
+ * Decides the order in which a {@link Search} tries moves, since alpha-beta
+ * prunes most when the best move comes first.
+ * <p>
+ * Every move gets a score: the hash move first, then captures by most
+ * valuable victim / least valuable attacker (MVV-LVA) and promotions, then
+ * the two killer moves of the ply (quiet moves that recently caused a cutoff
+ * at the same depth of the tree), then all other quiet moves by their
+ * history score, which grows each time the same from/to move causes a
+ * cutoff anywhere. {@link #pick} then selects the best remaining move one at
+ * a time, so a node that cuts off after one or two moves never pays for a
+ * full sort.
+ */
+final class MoveOrdering {
+
+    private static final int HASH_MOVE = 1 << 30;
+    private static final int GOOD_TACTICAL = 1 << 28;
+    private static final int KILLER = 1 << 27;
+    private static final int HISTORY_LIMIT = 1 << 24;
+
+    private final int[][] killers;
+    private final int[][] history = new int[2][64 * 64];
+
+    MoveOrdering(int maxPly) {
+        killers = new int[maxPly + 1][2];
+    }
+
+    /**
+     * Forgets the killers and fades the history, so a new search starts from
+     * what the last one learned without being dominated by it
+     */
+    void newSearch() {
+        for (int[] slots : killers) Arrays.fill(slots, 0);
+        for (int[] table : history) {
+            for (int i = 0; i < table.length; i++) table[i] >>= 3;
+        }
+    }
+
+    /**
+     * Fills {@code scores} with an ordering score for each move of the list
+     */
+    void score(ChessBoard board, MoveList moves, int[] scores, int hashMove, int ply, ChessGame.TeamColor color) {
+        int[] plyKillers = killers[ply];
+        int[] colorHistory = history[color.ordinal()];
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            if (hashMove != Move.NONE && Move.sameMove(move, hashMove)) {
+                scores[i] = HASH_MOVE;
+            } else if (Move.isCapture(move) || Move.isPromotion(move)) {
+                scores[i] = GOOD_TACTICAL + tacticalScore(board, move);
+            } else if (Move.sameMove(move, plyKillers[0])) {
+                scores[i] = KILLER + 1;
+            } else if (Move.sameMove(move, plyKillers[1])) {
+                scores[i] = KILLER;
+            } else {
+                scores[i] = colorHistory[fromTo(move)];
+            }
+        }
+    }
+
+    /**
+     * Scores captures and promotions only, for the quiescence search
+     */
+    void scoreTactical(ChessBoard board, MoveList moves, int[] scores) {
+        for (int i = 0; i < moves.size(); i++) scores[i] = tacticalScore(board, moves.get(i));
+    }
+
+    /**
+     * Moves the best scored move of {@code index..size-1} to {@code index}
+     *
+     * @return the move now at {@code index}
+     */
+    static int pick(MoveList moves, int[] scores, int index) {
+        int best = index;
+        for (int i = index + 1; i < moves.size(); i++) {
+            if (scores[i] > scores[best]) best = i;
+        }
+        if (best != index) {
+            int move = moves.get(best);
+            moves.set(best, moves.get(index));
+            moves.set(index, move);
+            int score = scores[best];
+            scores[best] = scores[index];
+            scores[index] = score;
+        }
+        return moves.get(index);
+    }
+
+    /**
+     * Remembers a quiet move that caused a beta cutoff
+     */
+    void recordCutoff(int move, int ply, int depth, ChessGame.TeamColor color) {
+        if (Move.isCapture(move) || Move.isPromotion(move)) return;
+
+        int[] plyKillers = killers[ply];
+        if (!Move.sameMove(move, plyKillers[0])) {
+            plyKillers[1] = plyKillers[0];
+            plyKillers[0] = move;
+        }
+
+        int[] colorHistory = history[color.ordinal()];
+        int index = fromTo(move);
+        colorHistory[index] += depth * depth;
+        if (colorHistory[index] > HISTORY_LIMIT) {
+            for (int i = 0; i < colorHistory.length; i++) colorHistory[i] >>= 1;
+        }
+    }
+
+    private static int tacticalScore(ChessBoard board, int move) {
+        int score = 0;
+        if (Move.isCapture(move)) {
+            ChessPiece victim = board.getPiece(Move.to(move));
+            ChessPiece attacker = board.getPiece(Move.from(move));
+            score += Evaluation.value(victim.getPieceType()) * 16 - Evaluation.value(attacker.getPieceType()) / 16;
+        }
+        if (Move.isPromotion(move)) score += Evaluation.value(Move.promotion(move));
+        return score;
+    }
+
+    private static int fromTo(int move) {
+        return Move.from(move) << 6 | Move.to(move);
+    }
+}
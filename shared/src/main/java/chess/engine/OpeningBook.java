@@ -0,0 +1,143 @@
+package chess.engine;
+
+import chess.ChessGame;
+import chess.Move;
+import chess.MoveGenerator;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Read-only opening book, memory-mapped from a file written by
+ * {@link OpeningBookBuilder}.
+ * <p>
+ * The file is a 16-byte header followed by 16-byte entries sorted by
+ * position key, with the moves of each position in descending weight:
+ * <pre>
+ * header  int magic ({@value #MAGIC}), int version, long entry count
+ * entry   long key ({@link ChessGame#getZobristKey()}), int packed {@link Move}, int weight
+ * </pre>
+ * Looking a key up is a binary search over the mapped entries using
+ * absolute reads, so it allocates nothing and any number of threads can
+ * share one book.
+ * Books opened by different processes on the same host share the operating
+ * system's page cache.
+ */
+public final class OpeningBook {
+
+    static final int MAGIC = 0x43424B31;
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 16;
+    static final int ENTRY_BYTES = 16;
+
+    private final ByteBuffer entries;
+    private final int size;
+
+    private OpeningBook(ByteBuffer buffer) throws IOException {
+        if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC) throw new IOException("Not an opening book");
+        if (buffer.getInt(4) != VERSION) throw new IOException("Unsupported opening book version " + buffer.getInt(4));
+        long count = buffer.getLong(8);
+        if (count < 0 || HEADER_BYTES + count * ENTRY_BYTES > buffer.capacity()) throw new IOException("Opening book is truncated");
+        entries = buffer.slice(HEADER_BYTES, (int) count * ENTRY_BYTES);
+        size = (int) count;
+    }
+
+    /**
+     * Maps a book file into memory. The mapping stays valid after this
+     * returns; the file is never read onto the heap.
+     */
+    public static OpeningBook open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return new OpeningBook(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * @return number of position/move entries
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param key {@link ChessGame#getZobristKey()} of the position
+     * @return number of book moves for the position
+     */
+    public int count(long key) {
+        int first = lowerBound(key);
+        int last = first;
+        while (last < size && key(last) == key) last++;
+        return last - first;
+    }
+
+    /**
+     * @param key {@link ChessGame#getZobristKey()} of the position
+     * @return the most played book move, or {@link Move#NONE}
+     */
+    public int bestMove(long key) {
+        int first = lowerBound(key);
+        return first < size && key(first) == key ? move(first) : Move.NONE;
+    }
+
+    /**
+     * Chooses a book move at random, in proportion to the weights, so a
+     * computer opponent does not always play the same opening
+     *
+     * @param key    {@link ChessGame#getZobristKey()} of the position
+     * @param random any random long
+     * @return a book move, or {@link Move#NONE}
+     */
+    public int weightedMove(long key, long random) {
+        int first = lowerBound(key);
+        long total = 0;
+        int last = first;
+        for (; last < size && key(last) == key; last++) total += weight(last);
+        if (total == 0) return Move.NONE;
+
+        long target = Math.floorMod(random, total);
+        for (int i = first; i < last; i++) {
+            target -= weight(i);
+            if (target < 0) return move(i);
+        }
+        return move(last - 1);
+    }
+
+    /**
+     * Looks the game's position up and checks the book move against the
+     * legal moves, so a book built from a different rule set cannot produce
+     * an illegal move
+     *
+     * @return a legal book move with its flags set, or {@link Move#NONE}
+     */
+    public int probe(ChessGame game, long random) {
+        int move = weightedMove(game.getZobristKey(), random);
+        if (move == Move.NONE) return Move.NONE;
+        return MoveGenerator.legalMove(game.getBoard(), game.getTeamTurn(), move);
+    }
+
+    private int lowerBound(long key) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (Long.compareUnsigned(key(mid), key) < 0) low = mid + 1;
+            else high = mid;
+        }
+        return low;
+    }
+
+    private long key(int index) {
+        return entries.getLong(index * ENTRY_BYTES);
+    }
+
+    private int move(int index) {
+        return entries.getInt(index * ENTRY_BYTES + 8);
+    }
+
+    private int weight(int index) {
+        return entries.getInt(index * ENTRY_BYTES + 12);
+    }
+}
@@ -0,0 +1,218 @@
+package chess.engine;
+
+import chess.Bitboards;
+import chess.ChessGame;
+import chess.ChessPiece;
+import chess.InvalidMoveException;
+import chess.Move;
+import chess.MoveGenerator;
+import chess.MoveList;
+
+import java.io.BufferedReader;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds an {@link OpeningBook} file from PGN game collections.
+ * <p>
+ * Each game is replayed through {@link ChessGame#makeMove} for its first
+ * {@code maxPly} half-moves, and every position reached adds one to the
+ * weight of the move played from it. A game stops counting at the first
+ * move this engine's rules cannot play (castling, en passant) or that does
+ * not parse, since every later position would be wrong.
+ */
+public final class OpeningBookBuilder {
+
+    private static final String PIECE_LETTERS = "KQBNR";
+    private static final ChessPiece.PieceType[] TYPES = ChessPiece.PieceType.values();
+
+    private final int maxPly;
+    private final Map<Long, Map<Integer, Integer>> weights = new HashMap<>();
+    private int games;
+
+    /**
+     * @param maxPly half-moves of each game to record
+     */
+    public OpeningBookBuilder(int maxPly) {
+        this.maxPly = maxPly;
+    }
+
+    /**
+     * Reads every game in a PGN collection. Tag pairs, comments, variations,
+     * numeric annotations and move numbers are skipped.
+     *
+     * @return number of games read
+     */
+    public int addPgn(Reader pgn) throws IOException {
+        int before = games;
+        List<String> moves = new ArrayList<>();
+        StringBuilder token = new StringBuilder();
+        BufferedReader reader = new BufferedReader(pgn);
+        int commentDepth = 0;
+        int variationDepth = 0;
+
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (commentDepth == 0 && variationDepth == 0 && line.startsWith("[")) continue;
+            for (int i = 0; i <= line.length(); i++) {
+                char c = i < line.length() ? line.charAt(i) : ' ';
+                if (commentDepth > 0) {
+                    if (c == '}') commentDepth--;
+                } else if (c == '{') {
+                    commentDepth++;
+                } else if (c == ';' && variationDepth == 0) {
+                    break;
+                } else if (c == '(') {
+                    variationDepth++;
+                } else if (c == ')') {
+                    variationDepth--;
+                } else if (variationDepth > 0) {
+                    continue;
+                } else if (Character.isWhitespace(c)) {
+                    if (endToken(token.toString(), moves)) {
+                        addGame(moves);
+                        moves.clear();
+                    }
+                    token.setLength(0);
+                } else {
+                    token.append(c);
+                }
+            }
+        }
+        if (!moves.isEmpty()) addGame(moves);
+        return games - before;
+    }
+
+    /**
+     * @return True if the token was a game result, which ends the game
+     */
+    private static boolean endToken(String token, List<String> moves) {
+        if (token.isEmpty() || token.startsWith("$")) return false;
+        if (token.equals("1-0") || token.equals("0-1") || token.equals("1/2-1/2") || token.equals("*")) return true;
+
+        // "12." and "12..." prefix the move, sometimes without a space
+        int start = 0;
+        while (start < token.length() && (Character.isDigit(token.charAt(start)) || token.charAt(start) == '.')) start++;
+        if (start < token.length()) moves.add(token.substring(start));
+        return false;
+    }
+
+    private void addGame(List<String> sanMoves) {
+        games++;
+        ChessGame game = new ChessGame();
+        for (int ply = 0; ply < Math.min(maxPly, sanMoves.size()); ply++) {
+            int move = parseSan(game, sanMoves.get(ply));
+            if (move == Move.NONE) return;
+
+            long key = game.getZobristKey();
+            try {
+                game.makeMove(Move.toChessMove(move));
+            } catch (InvalidMoveException e) {
+                return;
+            }
+            weights.computeIfAbsent(key, k -> new HashMap<>()).merge(move, 1, Integer::sum);
+        }
+    }
+
+    /**
+     * Matches a move in standard algebraic notation, such as {@code Nbd7},
+     * {@code exd5} or {@code e8=Q+}, against the legal moves of the position
+     *
+     * @return the legal move, or {@link Move#NONE} if there is no single match
+     */
+    static int parseSan(ChessGame game, String san) {
+        String text = san.replaceAll("[+#!?]", "");
+        if (text.startsWith("O-O") || text.startsWith("0-0")) return Move.NONE;
+
+        ChessPiece.PieceType promotion = null;
+        int equals = text.indexOf('=');
+        if (equals >= 0 && equals + 1 < text.length()) {
+            promotion = type(text.charAt(equals + 1));
+            text = text.substring(0, equals);
+        }
+        if (text.length() < 2) return Move.NONE;
+
+        ChessPiece.PieceType type = ChessPiece.PieceType.PAWN;
+        if (PIECE_LETTERS.indexOf(text.charAt(0)) >= 0) {
+            type = type(text.charAt(0));
+            text = text.substring(1);
+        }
+        String target = text.substring(text.length() - 2);
+        String from = text.substring(0, text.length() - 2).replace("x", "");
+        int to = square(target);
+        if (to < 0) return Move.NONE;
+
+        MoveList legal = new MoveList();
+        MoveGenerator.generateLegal(game.getBoard(), game.getTeamTurn(),
+                game.getBoard().getBitboard(game.getTeamTurn(), type), legal);
+        int match = Move.NONE;
+        for (int i = 0; i < legal.size(); i++) {
+            int move = legal.get(i);
+            if (Move.to(move) != to || Move.promotion(move) != promotion) continue;
+            if (!fromMatches(Move.from(move), from)) continue;
+            if (match != Move.NONE) return Move.NONE;
+            match = move;
+        }
+        return match;
+    }
+
+    private static boolean fromMatches(int square, String hint) {
+        for (char c : hint.toCharArray()) {
+            if (c >= 'a' && c <= 'h' && Bitboards.column(square) != c - 'a' + 1) return false;
+            if (c >= '1' && c <= '8' && Bitboards.row(square) != c - '0') return false;
+        }
+        return true;
+    }
+
+    private static ChessPiece.PieceType type(char letter) {
+        int index = PIECE_LETTERS.indexOf(letter);
+        return index < 0 ? null : TYPES[index];
+    }
+
+    private static int square(String name) {
+        int col = name.charAt(0) - 'a' + 1;
+        int row = name.charAt(1) - '0';
+        return Bitboards.onBoard(row, col) ? Bitboards.square(row, col) : -1;
+    }
+
+    /**
+     * @return number of games read so far
+     */
+    public int getGames() {
+        return games;
+    }
+
+    /**
+     * Writes the book, sorted by position key and then by descending weight
+     */
+    public void write(Path path) throws IOException {
+        try (OutputStream out = Files.newOutputStream(path)) {
+            write(out);
+        }
+    }
+
+    public void write(OutputStream stream) throws IOException {
+        List<long[]> entries = new ArrayList<>();
+        weights.forEach((key, moves) -> moves.forEach((move, weight) -> entries.add(new long[]{key, move, weight})));
+        entries.sort((a, b) -> a[0] != b[0] ? Long.compareUnsigned(a[0], b[0]) : Long.compare(b[2], a[2]));
+
+        DataOutputStream out = new DataOutputStream(stream);
+        out.writeInt(OpeningBook.MAGIC);
+        out.writeInt(OpeningBook.VERSION);
+        out.writeLong(entries.size());
+        for (long[] entry : entries) {
+            out.writeLong(entry[0]);
+            out.writeInt((int) entry[1]);
+            out.writeInt((int) entry[2]);
+        }
+        out.flush();
+    }
+}
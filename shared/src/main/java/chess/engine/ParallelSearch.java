@@ -0,0 +1,126 @@
+package chess.engine;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.PositionHistory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Runs several {@link Search}es on the same position at once, sharing one
+ * {@link TranspositionTable} (Lazy SMP).
+ * <p>
+ * The calling thread runs the main search and helper threads run their own
+ * iterative deepening, every other one starting a ply deeper so that the
+ * threads spread over different depths. They never talk to each other
+ * directly: each one's results reach the others through the shared table as
+ * cutoffs and move ordering. When the main search finishes, every helper is
+ * stopped, and the deepest completed iteration among all threads wins.
+ * Every thread gets its own copy of the board and position history, made on
+ * the calling thread before any helper starts, so the game itself is only
+ * ever read by the thread that owns it.
+ * <p>
+ * One instance serves one search at a time. {@link #close()} shuts the helper
+ * threads down.
+ */
+public final class ParallelSearch implements AutoCloseable {
+
+    private final TranspositionTable table;
+    private final int maxThreads;
+    private final ExecutorService helpers;
+    private final AtomicBoolean stopFlag = new AtomicBoolean();
+    private final Search[] searches;
+
+    /**
+     * @param table      table shared by every thread
+     * @param maxThreads most threads a search may use, the caller's included
+     */
+    public ParallelSearch(TranspositionTable table, int maxThreads) {
+        if (maxThreads < 1) throw new IllegalArgumentException("Need at least one thread");
+        this.table = table;
+        this.maxThreads = maxThreads;
+        helpers = maxThreads == 1 ? null : Executors.newFixedThreadPool(maxThreads - 1, runnable -> {
+            Thread thread = new Thread(runnable, "search-helper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        searches = new Search[maxThreads];
+        for (int i = 0; i < maxThreads; i++) searches[i] = new Search(table, stopFlag);
+    }
+
+    public int getMaxThreads() {
+        return maxThreads;
+    }
+
+    /**
+     * @param tablebase tablebase every thread probes, or null
+     * @see Search#setTablebase(Tablebase)
+     */
+    public synchronized void setTablebase(Tablebase tablebase) {
+        for (Search search : searches) search.setTablebase(tablebase);
+    }
+
+    public SearchResult search(ChessGame game, Duration budget) {
+        return search(game, System.nanoTime() + budget.toNanos(), Search.MAX_PLY, maxThreads);
+    }
+
+    /**
+     * @param deadline {@link System#nanoTime()} value at which to stop
+     * @param maxDepth deepest iteration to run
+     * @param threads  threads to use, capped at {@link #getMaxThreads()}
+     * @return the result of the deepest iteration any thread completed, with
+     * the nodes of every thread added up
+     */
+    public synchronized SearchResult search(ChessGame game, long deadline, int maxDepth, int threads) {
+        int count = Math.max(1, Math.min(threads, maxThreads));
+        stopFlag.set(false);
+        table.newSearch();
+
+        ChessBoard root = game.getBoard();
+        PositionHistory history = game.getPositionHistory();
+        ChessGame.TeamColor color = game.getTeamTurn();
+
+        List<Future<SearchResult>> running = new ArrayList<>(count - 1);
+        for (int i = 1; i < count; i++) {
+            Search helper = searches[i];
+            int firstDepth = 1 + (i & 1);
+            ChessBoard board = new ChessBoard(root);
+            PositionHistory positions = new PositionHistory(history);
+            running.add(helpers.submit(() -> helper.search(board, positions, color, deadline, maxDepth, firstDepth)));
+        }
+
+        SearchResult best = searches[0].search(new ChessBoard(root), history, color, deadline, maxDepth, 1);
+        stopFlag.set(true);
+
+        long nodes = best.nodes();
+        for (Future<SearchResult> future : running) {
+            SearchResult result = join(future);
+            nodes += result.nodes();
+            if (result.depth() > best.depth()) best = result;
+        }
+        return new SearchResult(best.move(), best.score(), best.depth(), nodes);
+    }
+
+    private static SearchResult join(Future<SearchResult> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a helper search", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Helper search failed", e.getCause());
+        }
+    }
+
+    @Override
+    public void close() {
+        if (helpers != null) helpers.shutdownNow();
+    }
+}
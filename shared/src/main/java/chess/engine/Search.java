@@ -0,0 +1,319 @@
+package chess.engine;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessPiece;
+import chess.Move;
+import chess.MoveGenerator;
+import chess.MoveList;
+import chess.PositionHistory;
+import chess.Zobrist;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Chooses a move by negamax alpha-beta search with iterative deepening.
+ * <p>
+ * Each iteration searches one ply deeper than the last and seeds its move
+ * ordering from the transposition table, so an interrupted iteration still
+ * starts from the previous best move. {@link MoveOrdering} decides the order
+ * of the remaining moves. Leaves are extended by a quiescence
+ * search over captures and promotions, so the evaluation is never taken in
+ * the middle of an exchange. A position that already occurred in the game
+ * or the current line scores as a draw, using the game's
+ * {@link PositionHistory}.
+ * <p>
+ * The clock and the {@link #stop()} flag are read every
+ * {@value #CHECK_INTERVAL} nodes. Once the deadline passes or the search is
+ * stopped it unwinds without finishing the iteration and returns the
+ * best move found so far, so a call overruns its deadline by at most a few
+ * thousand nodes.
+ * <p>
+ * A search plays moves on its own copy of the board and never touches the
+ * game passed in. Instances keep per-ply move lists and are not thread-safe;
+ * use one per thread and share a {@link TranspositionTable} between them.
+ */
+public final class Search {
+
+    public static final int MAX_PLY = 128;
+    public static final int MATE = 30000;
+
+    /**
+     * Scores above this (or below its negation) are forced mates
+     */
+    public static final int MATE_BOUND = MATE - MAX_PLY;
+
+    private static final int INFINITY = MATE + 1;
+    private static final int CHECK_INTERVAL = 2048;
+
+    private final TranspositionTable table;
+    private final AtomicBoolean stopFlag;
+    private final boolean ownsStopFlag;
+    private final MoveList[] moveLists = new MoveList[MAX_PLY + 1];
+    private final int[][] moveScores = new int[MAX_PLY + 1][256];
+    private final MoveOrdering ordering = new MoveOrdering(MAX_PLY);
+
+    private Tablebase tablebase;
+    private ChessBoard board;
+    private PositionHistory history;
+    private long deadline;
+    private long nodes;
+    private boolean stopped;
+    private int rootMove;
+
+    public Search(TranspositionTable table) {
+        this(table, new AtomicBoolean(), true);
+    }
+
+    /**
+     * Creates a search that stops whenever {@code stopFlag} is set. The flag
+     * belongs to the caller and is never cleared by the search.
+     */
+    Search(TranspositionTable table, AtomicBoolean stopFlag) {
+        this(table, stopFlag, false);
+    }
+
+    private Search(TranspositionTable table, AtomicBoolean stopFlag, boolean ownsStopFlag) {
+        this.table = table;
+        this.stopFlag = stopFlag;
+        this.ownsStopFlag = ownsStopFlag;
+        for (int ply = 0; ply < moveLists.length; ply++) moveLists[ply] = new MoveList();
+    }
+
+    public Search() {
+        this(new TranspositionTable(16));
+    }
+
+    /**
+     * @param budget time to think
+     * @return the best move found in the time budget
+     */
+    public SearchResult search(ChessGame game, Duration budget) {
+        return search(game, System.nanoTime() + budget.toNanos());
+    }
+
+    /**
+     * @param deadline {@link System#nanoTime()} value at which to stop
+     * @return the best move found before the deadline
+     */
+    public SearchResult search(ChessGame game, long deadline) {
+        return search(game, deadline, MAX_PLY);
+    }
+
+    /**
+     * Searches to {@code maxDepth} plies, or until the deadline if that comes first
+     *
+     * @param deadline {@link System#nanoTime()} value at which to stop
+     * @param maxDepth deepest iteration to run
+     * @return the best move of the deepest iteration completed
+     */
+    public SearchResult search(ChessGame game, long deadline, int maxDepth) {
+        if (ownsStopFlag) stopFlag.set(false);
+        table.newSearch();
+        return search(new ChessBoard(game.getBoard()), game.getPositionHistory(), game.getTeamTurn(), deadline, maxDepth, 1);
+    }
+
+    /**
+     * Runs the iterations from {@code firstDepth} to {@code maxDepth}, for
+     * helper threads that skip ahead of the main one. The search plays its
+     * moves on the board and history it is given, so they must be its own
+     * copies, made on the thread that owns the game.
+     */
+    SearchResult search(ChessBoard board, PositionHistory history, ChessGame.TeamColor color,
+                        long deadline, int maxDepth, int firstDepth) {
+        this.board = board;
+        this.history = history;
+        this.deadline = deadline;
+        nodes = 0;
+        stopped = false;
+        ordering.newSearch();
+
+        MoveList rootMoves = new MoveList();
+        MoveGenerator.generateLegal(board, color, rootMoves);
+        if (rootMoves.isEmpty()) {
+            return new SearchResult(Move.NONE, board.kingSquare(color) >= 0 && inCheck(color) ? -MATE : 0, 0, 0);
+        }
+
+        SearchResult result = new SearchResult(rootMoves.get(0), 0, 0, 0);
+        for (int depth = Math.max(firstDepth, 1); depth <= Math.min(maxDepth, MAX_PLY); depth++) {
+            rootMove = Move.NONE;
+            int score = negamax(depth, 0, -INFINITY, INFINITY, color);
+            if (stopped) {
+                // the previous best move is searched first, so anything that beat it can be trusted
+                if (rootMove != Move.NONE) result = new SearchResult(rootMove, result.score(), result.depth(), nodes);
+                break;
+            }
+            result = new SearchResult(rootMove, score, depth, nodes);
+            if (Math.abs(score) > MATE_BOUND) break;
+        }
+        return new SearchResult(result.move(), result.score(), result.depth(), nodes);
+    }
+
+    /**
+     * Answers positions the tablebase covers from it instead of searching
+     * them, so a won ending is played straight towards mate
+     *
+     * @param tablebase the tablebase to probe, or null to search everything
+     */
+    public void setTablebase(Tablebase tablebase) {
+        this.tablebase = tablebase;
+    }
+
+    /**
+     * Asks a running search, from any thread, to return as soon as possible
+     */
+    public void stop() {
+        stopFlag.set(true);
+    }
+
+    /**
+     * @return positions visited by the current or last search
+     */
+    public long getNodes() {
+        return nodes;
+    }
+
+    private int negamax(int depth, int ply, int alpha, int beta, ChessGame.TeamColor color) {
+        if (ply > 0 && history.isRepetition()) return 0;
+        if (depth <= 0) return quiescence(ply, alpha, beta, color);
+        if (tick()) return 0;
+        if (tablebase != null && ply > 0) {
+            int value = tablebase.probe(board, color);
+            if (value != Integer.MIN_VALUE) return fromTablebase(value, ply);
+        }
+
+        long key = key(color);
+        long entry = table.probe(key);
+        int hashMove = TranspositionTable.move(entry);
+        if (entry != TranspositionTable.MISS && ply > 0 && TranspositionTable.depth(entry) >= depth) {
+            int score = fromTable(TranspositionTable.score(entry), ply);
+            int bound = TranspositionTable.bound(entry);
+            if (bound == TranspositionTable.EXACT
+                    || (bound == TranspositionTable.LOWER && score >= beta)
+                    || (bound == TranspositionTable.UPPER && score <= alpha)) {
+                return score;
+            }
+        }
+
+        MoveList moves = moveLists[ply];
+        moves.clear();
+        MoveGenerator.generateLegal(board, color, moves);
+        if (moves.isEmpty()) return inCheck(color) ? -MATE + ply : 0;
+        if (ply >= MAX_PLY) return Evaluation.evaluate(board, color);
+        int[] scores = scores(ply, moves.size());
+        ordering.score(board, moves, scores, hashMove, ply, color);
+
+        int originalAlpha = alpha;
+        int bestScore = -INFINITY;
+        int bestMove = Move.NONE;
+        for (int i = 0; i < moves.size(); i++) {
+            int move = MoveOrdering.pick(moves, scores, i);
+            boolean irreversible = Move.isCapture(move)
+                    || board.getPiece(Move.from(move)).getPieceType() == ChessPiece.PieceType.PAWN;
+            board.makeMove(move);
+            history.push(key(color.opponent()), irreversible);
+            int score = -negamax(depth - 1, ply + 1, -beta, -alpha, color.opponent());
+            history.pop();
+            board.unmakeMove();
+            if (stopped) return 0;
+
+            if (score > bestScore) {
+                bestScore = score;
+                bestMove = move;
+                if (ply == 0) rootMove = move;
+                if (score > alpha) alpha = score;
+                if (alpha >= beta) {
+                    ordering.recordCutoff(move, ply, depth, color);
+                    break;
+                }
+            }
+        }
+
+        int bound = bestScore >= beta ? TranspositionTable.LOWER
+                : bestScore > originalAlpha ? TranspositionTable.EXACT : TranspositionTable.UPPER;
+        table.store(key, bestMove, toTable(bestScore, ply), depth, bound);
+        return bestScore;
+    }
+
+    /**
+     * Searches captures and promotions until the position is quiet, letting
+     * the side to move stand pat on the static evaluation
+     */
+    private int quiescence(int ply, int alpha, int beta, ChessGame.TeamColor color) {
+        if (tick()) return 0;
+
+        int standPat = Evaluation.evaluate(board, color);
+        if (standPat >= beta || ply >= MAX_PLY) return standPat;
+        if (standPat > alpha) alpha = standPat;
+
+        MoveList moves = moveLists[ply];
+        moves.clear();
+        MoveGenerator.generateLegal(board, color, moves);
+        int tactical = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            if (Move.isCapture(move) || Move.isPromotion(move)) moves.set(tactical++, move);
+        }
+        moves.truncate(tactical);
+        int[] scores = scores(ply, tactical);
+        ordering.scoreTactical(board, moves, scores);
+
+        for (int i = 0; i < moves.size(); i++) {
+            int move = MoveOrdering.pick(moves, scores, i);
+            board.makeMove(move);
+            int score = -quiescence(ply + 1, -beta, -alpha, color.opponent());
+            board.unmakeMove();
+            if (stopped) return 0;
+
+            if (score >= beta) return score;
+            if (score > alpha) alpha = score;
+        }
+        return alpha;
+    }
+
+    /**
+     * Counts a node and checks the clock now and then
+     *
+     * @return True if the search has to stop
+     */
+    private boolean tick() {
+        if ((++nodes & (CHECK_INTERVAL - 1)) == 0 && (stopFlag.get() || System.nanoTime() - deadline >= 0)) {
+            stopped = true;
+        }
+        return stopped;
+    }
+
+    private int[] scores(int ply, int size) {
+        if (moveScores[ply].length < size) moveScores[ply] = new int[size];
+        return moveScores[ply];
+    }
+
+    private boolean inCheck(ChessGame.TeamColor color) {
+        int king = board.kingSquare(color);
+        return king >= 0 && board.isSquareAttacked(king, color.opponent());
+    }
+
+    private long key(ChessGame.TeamColor color) {
+        return board.getZobristKey() ^ Zobrist.side(color);
+    }
+
+    private static int fromTablebase(int value, int ply) {
+        if (value > 0) return MATE - ply - value;
+        if (value < 0) return -MATE + ply + (-value - 1);
+        return 0;
+    }
+
+    // mate scores are stored relative to the position, not the root
+    private static int toTable(int score, int ply) {
+        if (score > MATE_BOUND) return score + ply;
+        if (score < -MATE_BOUND) return score - ply;
+        return score;
+    }
+
+    private static int fromTable(int score, int ply) {
+        if (score > MATE_BOUND) return score - ply;
+        if (score < -MATE_BOUND) return score + ply;
+        return score;
+    }
+}
@@ -0,0 +1,26 @@
+package chess.engine;
+
+import chess.ChessMove;
+import chess.Move;
+
+/**
+ * Outcome of a {@link Search}: the best move of the deepest completed
+ * iteration and what it was worth.
+ *
+ * @param move  packed best move, or {@link Move#NONE} if the side to move has no legal move
+ * @param score centipawns for the side to move; beyond {@link Search#MATE_BOUND} a forced mate
+ * @param depth deepest iteration that finished
+ * @param nodes positions visited, quiescence included
+ */
+public record SearchResult(int move,
+                           int score,
+                           int depth,
+                           long nodes) {
+
+    /**
+     * @return the best move, or null if the side to move has no legal move
+     */
+    public ChessMove bestMove() {
+        return move == Move.NONE ? null : Move.toChessMove(move);
+    }
+}
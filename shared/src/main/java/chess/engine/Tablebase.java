@@ -0,0 +1,162 @@
+package chess.engine;
+
+import chess.Bitboards;
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessPiece;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Exact results for positions with two kings and one other piece (KQK, KRK,
+ * KPK, ...), memory-mapped from a file written by {@link TablebaseGenerator}.
+ * <p>
+ * Each table holds one byte per position, indexed directly by the side to
+ * move and the squares of the three pieces, so a probe is one array read.
+ * Tables are stored with the extra piece on the white side; positions where
+ * black has it are flipped top to bottom and colors swapped before lookup.
+ * <p>
+ * A byte is 0 for a draw, {@code n > 0} when the side to move mates in
+ * {@code n} plies, {@code -n - 1} when it is mated in {@code n} plies, and
+ * {@value #ILLEGAL} for positions that cannot arise.
+ * <p>
+ * {@link ChessGame#status()} stays a statement of the rules: a won KQK is
+ * still ONGOING until it is mate. Callers that want to adjudicate, such as
+ * a server ending a game early, ask {@link #wdl(ChessGame)} alongside it;
+ * both are constant time.
+ * <p>
+ * File layout:
+ * <pre>
+ * header     int magic ({@value #MAGIC}), int version, int table count, int reserved
+ * directory  per table: int piece type ordinal, int longest mate in plies, long data offset
+ * data       per table: {@value #POSITIONS} bytes
+ * </pre>
+ */
+public final class Tablebase {
+
+    /**
+     * Outcome for the side to move with best play
+     */
+    public enum Wdl {
+        WIN,
+        DRAW,
+        LOSS
+    }
+
+    static final int MAGIC = 0x43544231;
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 16;
+    static final int DIRECTORY_BYTES = 16;
+    static final int POSITIONS = 2 * 64 * 64 * 64;
+    static final byte ILLEGAL = -128;
+
+    private static final int TYPES = ChessPiece.PieceType.values().length;
+
+    private final ByteBuffer[] tables = new ByteBuffer[TYPES];
+    private final int[] longest = new int[TYPES];
+
+    private Tablebase(ByteBuffer buffer) throws IOException {
+        if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC) throw new IOException("Not a tablebase");
+        if (buffer.getInt(4) != VERSION) throw new IOException("Unsupported tablebase version " + buffer.getInt(4));
+        int count = buffer.getInt(8);
+        for (int i = 0; i < count; i++) {
+            int entry = HEADER_BYTES + i * DIRECTORY_BYTES;
+            int type = buffer.getInt(entry);
+            long offset = buffer.getLong(entry + 8);
+            if (type < 0 || type >= TYPES || offset < 0 || offset + POSITIONS > buffer.capacity()) {
+                throw new IOException("Tablebase directory is corrupt");
+            }
+            tables[type] = buffer.slice((int) offset, POSITIONS);
+            longest[type] = buffer.getInt(entry + 4);
+        }
+    }
+
+    public static Tablebase open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return new Tablebase(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * @return True if the file has a table for king and {@code type} against king
+     */
+    public boolean covers(ChessPiece.PieceType type) {
+        return tables[type.ordinal()] != null;
+    }
+
+    /**
+     * @return the longest mate in the table for king and {@code type} against king, in plies
+     */
+    public int longestMate(ChessPiece.PieceType type) {
+        return longest[type.ordinal()];
+    }
+
+    /**
+     * @return the result for the side to move, or null if no table covers the position
+     */
+    public Wdl wdl(ChessBoard board, ChessGame.TeamColor sideToMove) {
+        int value = probe(board, sideToMove);
+        if (value == Integer.MIN_VALUE) return null;
+        return value > 0 ? Wdl.WIN : value < 0 ? Wdl.LOSS : Wdl.DRAW;
+    }
+
+    public Wdl wdl(ChessGame game) {
+        return wdl(game.getBoard(), game.getTeamTurn());
+    }
+
+    /**
+     * @return plies until mate with best play, 0 if the side to move is
+     * already mated, or -1 for a draw or a position no table covers
+     */
+    public int pliesToMate(ChessBoard board, ChessGame.TeamColor sideToMove) {
+        int value = probe(board, sideToMove);
+        if (value == Integer.MIN_VALUE || value == 0) return -1;
+        return value > 0 ? value : -value - 1;
+    }
+
+    /**
+     * @return the raw table byte for the position, or {@link Integer#MIN_VALUE}
+     * if no table covers it
+     */
+    int probe(ChessBoard board, ChessGame.TeamColor sideToMove) {
+        ChessPiece.PieceType type = extraPiece(board);
+        if (type == null || tables[type.ordinal()] == null) return Integer.MIN_VALUE;
+        byte value = tables[type.ordinal()].get(index(board, sideToMove, type));
+        return value == ILLEGAL ? Integer.MIN_VALUE : value;
+    }
+
+    /**
+     * @return the type of the one piece besides the kings, or null if the
+     * board holds anything other than two kings and one more piece
+     */
+    static ChessPiece.PieceType extraPiece(ChessBoard board) {
+        long occupied = board.getOccupancy();
+        if (Long.bitCount(occupied) != 3) return null;
+        if (board.kingSquare(ChessGame.TeamColor.WHITE) < 0 || board.kingSquare(ChessGame.TeamColor.BLACK) < 0) return null;
+        long kings = board.getBitboard(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING)
+                | board.getBitboard(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KING);
+        return board.getPiece(Long.numberOfTrailingZeros(occupied & ~kings)).getPieceType();
+    }
+
+    /**
+     * Table index of a position with two kings and one {@code type} piece,
+     * seen from the side that owns that piece
+     */
+    static int index(ChessBoard board, ChessGame.TeamColor sideToMove, ChessPiece.PieceType type) {
+        long kings = board.getBitboard(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING)
+                | board.getBitboard(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KING);
+        int pieceSquare = Long.numberOfTrailingZeros(board.getOccupancy() & ~kings);
+        ChessGame.TeamColor strong = board.getPiece(pieceSquare).getTeamColor();
+        int flip = strong == ChessGame.TeamColor.WHITE ? 0 : 56;
+        return index(sideToMove == strong,
+                board.kingSquare(strong) ^ flip, board.kingSquare(strong.opponent()) ^ flip, pieceSquare ^ flip);
+    }
+
+    static int index(boolean strongToMove, int strongKing, int weakKing, int piece) {
+        return (((strongToMove ? 0 : 1) * Bitboards.SQUARES + strongKing) * Bitboards.SQUARES + weakKing) * Bitboards.SQUARES + piece;
+    }
+}
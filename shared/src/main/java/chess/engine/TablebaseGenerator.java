@@ -0,0 +1,215 @@
+package chess.engine;
+
+import chess.Bitboards;
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessPiece;
+import chess.ChessPosition;
+import chess.Move;
+import chess.MoveGenerator;
+import chess.MoveList;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.IntStream;
+
+/**
+ * Solves every position with two kings and one other piece and writes the
+ * results as a {@link Tablebase} file.
+ * <p>
+ * Solving works backwards from the checkmates one ply at a time. Pass
+ * {@code n} marks a position won in {@code n} plies if some move reaches a
+ * position lost in {@code n - 1}, and lost in {@code n} plies if every move
+ * reaches a position won in at most {@code n - 1}, the longest of them
+ * exactly. Whatever is left unmarked when the passes run out is a draw.
+ * Moves are generated by {@link MoveGenerator}, so the tables follow the
+ * same rules as {@link ChessGame}.
+ * <p>
+ * Each pass splits the table into chunks that are solved in parallel on the
+ * common fork/join pool. A pass only marks positions at one distance, and
+ * every position it reads was marked by an earlier pass, so chunks never
+ * need to wait for each other.
+ */
+public final class TablebaseGenerator {
+
+    private static final int CHUNK = 4096;
+    private static final int HALF = Tablebase.POSITIONS / 2;
+    private static final int MAX_PLIES = 126;
+    private static final ChessPiece.PieceType[] PROMOTIONS = {
+            ChessPiece.PieceType.QUEEN, ChessPiece.PieceType.ROOK, ChessPiece.PieceType.BISHOP, ChessPiece.PieceType.KNIGHT
+    };
+
+    private final byte[][] tables = new byte[ChessPiece.PieceType.values().length][];
+    private final int[] longest = new int[tables.length];
+
+    /**
+     * Solves king and {@code type} against king, after first solving the
+     * tables a pawn can promote into. Tables already solved are reused.
+     */
+    public void solve(ChessPiece.PieceType type) {
+        if (type == ChessPiece.PieceType.KING) throw new IllegalArgumentException("The extra piece cannot be a king");
+        if (tables[type.ordinal()] != null) return;
+
+        int reachable = 0;
+        if (type == ChessPiece.PieceType.PAWN) {
+            for (ChessPiece.PieceType promotion : PROMOTIONS) {
+                solve(promotion);
+                reachable = Math.max(reachable, longest[promotion.ordinal()]);
+            }
+        }
+
+        byte[] table = new byte[Tablebase.POSITIONS];
+        pass(table, type, 0);
+        // a pass can come up empty while mates after a promotion are still to be counted
+        for (int plies = 1; plies <= MAX_PLIES; plies++) {
+            int marked = pass(table, type, plies);
+            if (marked > 0) longest[type.ordinal()] = plies;
+            else if (plies > reachable + 1) break;
+        }
+        tables[type.ordinal()] = table;
+    }
+
+    /**
+     * @return True if the table for king and {@code type} against king has been solved
+     */
+    public boolean isSolved(ChessPiece.PieceType type) {
+        return tables[type.ordinal()] != null;
+    }
+
+    /**
+     * Writes every solved table
+     */
+    public void write(Path path) throws IOException {
+        try (OutputStream out = Files.newOutputStream(path)) {
+            write(out);
+        }
+    }
+
+    public void write(OutputStream stream) throws IOException {
+        int count = 0;
+        for (byte[] table : tables) if (table != null) count++;
+
+        DataOutputStream out = new DataOutputStream(stream);
+        out.writeInt(Tablebase.MAGIC);
+        out.writeInt(Tablebase.VERSION);
+        out.writeInt(count);
+        out.writeInt(0);
+        long offset = Tablebase.HEADER_BYTES + (long) count * Tablebase.DIRECTORY_BYTES;
+        for (int type = 0; type < tables.length; type++) {
+            if (tables[type] == null) continue;
+            out.writeInt(type);
+            out.writeInt(longest[type]);
+            out.writeLong(offset);
+            offset += Tablebase.POSITIONS;
+        }
+        for (byte[] table : tables) if (table != null) out.write(table);
+        out.flush();
+    }
+
+    /**
+     * Runs one pass over the half of the table it can change: only the side
+     * with the extra piece can win, so wins (odd plies) are all with that
+     * side to move and losses (even plies) all with the lone king to move.
+     * Pass 0 looks at every position to mark the illegal ones.
+     *
+     * @return number of positions marked
+     */
+    private int pass(byte[] table, ChessPiece.PieceType type, int plies) {
+        int first = plies > 0 && plies % 2 == 0 ? HALF : 0;
+        int last = plies % 2 == 1 ? HALF : Tablebase.POSITIONS;
+        return IntStream.range(first / CHUNK, last / CHUNK).parallel()
+                .map(chunk -> solveChunk(table, type, plies, chunk * CHUNK))
+                .sum();
+    }
+
+    private int solveChunk(byte[] table, ChessPiece.PieceType type, int plies, int start) {
+        ChessBoard board = new ChessBoard();
+        MoveList moves = new MoveList();
+        ChessPiece piece = ChessPiece.of(ChessGame.TeamColor.WHITE, type);
+        ChessPiece whiteKing = ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING);
+        ChessPiece blackKing = ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KING);
+        int marked = 0;
+
+        for (int index = start; index < start + CHUNK; index++) {
+            if (table[index] != 0) continue;
+            ChessGame.TeamColor color = index < HALF ? ChessGame.TeamColor.WHITE : ChessGame.TeamColor.BLACK;
+            int strongKing = (index >>> 12) & 63;
+            int weakKing = (index >>> 6) & 63;
+            int square = index & 63;
+
+            if (plies == 0 && !canPlace(type, strongKing, weakKing, square)) {
+                table[index] = Tablebase.ILLEGAL;
+                continue;
+            }
+            ChessPosition[] placed = {ChessPosition.of(strongKing), ChessPosition.of(weakKing), ChessPosition.of(square)};
+            board.addPiece(placed[0], whiteKing);
+            board.addPiece(placed[1], blackKing);
+            board.addPiece(placed[2], piece);
+
+            byte value = solvePosition(board, moves, table, type, color, plies);
+            if (value != 0) {
+                table[index] = value;
+                marked++;
+            }
+            for (ChessPosition position : placed) board.removePiece(position);
+        }
+        return marked;
+    }
+
+    private byte solvePosition(ChessBoard board, MoveList moves, byte[] table,
+                               ChessPiece.PieceType type, ChessGame.TeamColor color, int plies) {
+        if (plies == 0) {
+            // the side that just moved cannot have left its king in check
+            if (inCheck(board, color.opponent())) return Tablebase.ILLEGAL;
+            moves.clear();
+            MoveGenerator.generateLegal(board, color, moves);
+            return moves.isEmpty() && inCheck(board, color) ? (byte) -1 : 0;
+        }
+
+        moves.clear();
+        MoveGenerator.generateLegal(board, color, moves);
+        if (plies % 2 == 1) {
+            for (int i = 0; i < moves.size(); i++) {
+                if (child(board, moves.get(i), table, type, color) == -plies) return (byte) plies;
+            }
+            return 0;
+        }
+
+        if (moves.isEmpty()) return 0;
+        int longestWin = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            int value = child(board, moves.get(i), table, type, color);
+            if (value <= 0) return 0;
+            longestWin = Math.max(longestWin, value);
+        }
+        return longestWin == plies - 1 ? (byte) (-plies - 1) : 0;
+    }
+
+    /**
+     * @return the table byte of the position after {@code move}; a capture
+     * leaves two bare kings, which is a draw
+     */
+    private int child(ChessBoard board, int move, byte[] table, ChessPiece.PieceType type, ChessGame.TeamColor color) {
+        if (Move.isCapture(move)) return 0;
+        ChessPiece.PieceType promotion = Move.promotion(move);
+        board.makeMove(move);
+        int value = promotion == null
+                ? table[Tablebase.index(board, color.opponent(), type)]
+                : tables[promotion.ordinal()][Tablebase.index(board, color.opponent(), promotion)];
+        board.unmakeMove();
+        return value;
+    }
+
+    private static boolean canPlace(ChessPiece.PieceType type, int strongKing, int weakKing, int square) {
+        if (strongKing == weakKing || strongKing == square || weakKing == square) return false;
+        int row = Bitboards.row(square);
+        return type != ChessPiece.PieceType.PAWN || (row != 1 && row != 8);
+    }
+
+    private static boolean inCheck(ChessBoard board, ChessGame.TeamColor color) {
+        return board.isSquareAttacked(board.kingSquare(color), color.opponent());
+    }
+}
@@ -0,0 +1,224 @@
+package chess.engine;
+
+import chess.Move;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fixed-size hash table of search results keyed by 64-bit Zobrist keys,
+ * shared by any number of search threads without locks.
+ * <p>
+ * The table is one preallocated {@code long[]} of four-entry buckets, 64
+ * bytes each. An entry is two longs: the packed data and the key XORed with
+ * that data. A thread that reads half of one write and half of another gets
+ * a pair that no longer XORs back to its key, and sees a miss instead of a
+ * corrupted entry.
+ * <p>
+ * When a bucket is full, a store replaces the entry worth least: shallow
+ * entries go first, and entries from earlier searches (see
+ * {@link #newSearch()}) count as shallower the older they are.
+ * <p>
+ * Packed data layout:
+ * <pre>
+ * bits  0-19  move ({@link Move#NONE} if unknown)
+ * bits 20-35  score, signed
+ * bits 36-43  depth
+ * bits 44-45  bound ({@link #EXACT}, {@link #LOWER} or {@link #UPPER}; 0 marks an empty entry)
+ * bits 46-53  age
+ * </pre>
+ */
+public final class TranspositionTable {
+
+    public static final int EXACT = 1;
+    public static final int LOWER = 2;
+    public static final int UPPER = 3;
+
+    /**
+     * Returned by {@link #probe} when the position is not in the table
+     */
+    public static final long MISS = 0L;
+
+    public static final int MAX_MEGABYTES = 8192;
+
+    private static final int ENTRY_BYTES = 16;
+    private static final int BUCKET_ENTRIES = 4;
+    private static final int BUCKET_LONGS = BUCKET_ENTRIES * 2;
+    private static final int AGE_WEIGHT = 4;
+
+    private final long[] table;
+    private final long bucketMask;
+    private volatile int age;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder collisions = new LongAdder();
+
+    /**
+     * @param megabytes memory to use, rounded down to a power of two number of buckets
+     */
+    public TranspositionTable(int megabytes) {
+        if (megabytes < 1 || megabytes > MAX_MEGABYTES) {
+            throw new IllegalArgumentException("Table size must be 1-" + MAX_MEGABYTES + " MB");
+        }
+        long buckets = Long.highestOneBit((long) megabytes * (1 << 20) / (ENTRY_BYTES * BUCKET_ENTRIES));
+        table = new long[(int) (buckets * BUCKET_LONGS)];
+        bucketMask = buckets - 1;
+    }
+
+    /**
+     * Looks a position up
+     *
+     * @param key Zobrist key of the position
+     * @return the packed entry, or {@link #MISS}
+     */
+    public long probe(long key) {
+        int base = bucket(key);
+        for (int i = base; i < base + BUCKET_LONGS; i += 2) {
+            long data = table[i + 1];
+            if (data != 0 && (table[i] ^ data) == key) {
+                hits.increment();
+                return data;
+            }
+        }
+        misses.increment();
+        return MISS;
+    }
+
+    /**
+     * Records a search result. A result for a position already in the table
+     * keeps the stored move when it has none of its own, and does not replace
+     * a deeper entry from the current search unless it is exact.
+     *
+     * @param key   Zobrist key of the position
+     * @param move  best move found, or {@link Move#NONE}
+     * @param score score from the side to move's point of view
+     * @param depth remaining depth the score was searched to
+     * @param bound {@link #EXACT}, {@link #LOWER} or {@link #UPPER}
+     */
+    public void store(long key, int move, int score, int depth, int bound) {
+        int currentAge = age;
+        int base = bucket(key);
+        int victim = base;
+        int worst = Integer.MAX_VALUE;
+        for (int i = base; i < base + BUCKET_LONGS; i += 2) {
+            long data = table[i + 1];
+            if (data == 0) {
+                if (worst != Integer.MIN_VALUE) victim = i;
+                worst = Integer.MIN_VALUE;
+                continue;
+            }
+            if ((table[i] ^ data) == key) {
+                if (bound != EXACT && age(data) == currentAge && depth(data) > depth + 2) return;
+                if (move == Move.NONE) move = move(data);
+                victim = i;
+                worst = Integer.MIN_VALUE;
+                break;
+            }
+            int value = depth(data) - AGE_WEIGHT * ((currentAge - age(data)) & 0xFF);
+            if (value < worst) {
+                worst = value;
+                victim = i;
+            }
+        }
+
+        long old = table[victim + 1];
+        if (old != 0 && (table[victim] ^ old) != key) collisions.increment();
+
+        long data = pack(move, score, depth, bound, currentAge);
+        table[victim] = key ^ data;
+        table[victim + 1] = data;
+    }
+
+    /**
+     * Marks the start of a new search, so entries from earlier ones are
+     * replaced first
+     */
+    public void newSearch() {
+        age = (age + 1) & 0xFF;
+    }
+
+    /**
+     * Empties the table and resets the counters. Not safe while searches are running.
+     */
+    public void clear() {
+        Arrays.fill(table, 0L);
+        age = 0;
+        resetStats();
+    }
+
+    public void resetStats() {
+        hits.reset();
+        misses.reset();
+        collisions.reset();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * @return number of stores that evicted an entry for a different position
+     */
+    public long getCollisions() {
+        return collisions.sum();
+    }
+
+    /**
+     * @return number of entries the table can hold
+     */
+    public int capacity() {
+        return table.length / 2;
+    }
+
+    /**
+     * Samples the first thousand entries
+     *
+     * @return per mille of sampled entries written during the current search
+     */
+    public int hashfull() {
+        int sample = Math.min(1000, capacity());
+        int used = 0;
+        for (int entry = 0; entry < sample; entry++) {
+            long data = table[entry * 2 + 1];
+            if (data != 0 && age(data) == age) used++;
+        }
+        return used * 1000 / sample;
+    }
+
+    private int bucket(long key) {
+        return (int) (key & bucketMask) * BUCKET_LONGS;
+    }
+
+    static long pack(int move, int score, int depth, int bound, int age) {
+        return (move & 0xFFFFFL)
+                | (score & 0xFFFFL) << 20
+                | (long) Math.min(Math.max(depth, 0), 0xFF) << 36
+                | (long) bound << 44
+                | (long) age << 46;
+    }
+
+    public static int move(long entry) {
+        return (int) (entry & 0xFFFFF);
+    }
+
+    public static int score(long entry) {
+        return (short) (entry >>> 20);
+    }
+
+    public static int depth(long entry) {
+        return (int) (entry >>> 36) & 0xFF;
+    }
+
+    public static int bound(long entry) {
+        return (int) (entry >>> 44) & 0x3;
+    }
+
+    private static int age(long entry) {
+        return (int) (entry >>> 46) & 0xFF;
+    }
+}
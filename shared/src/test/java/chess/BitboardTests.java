@@ -0,0 +1,95 @@
+package chess;
+
+import org.junit.jupiter.api.*;
+
+import static passoffTests.TestFactory.*;
+
+public class BitboardTests {
+
+    @Test
+    @DisplayName("Bitboards Follow Add and Remove")
+    public void addRemoveKeepsBitboardsInSync() {
+        var board = getNewBoard();
+        var position = getNewPosition(4, 5);
+        board.addPiece(position, getNewPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT));
+
+        long bit = Bitboards.bit(Bitboards.square(4, 5));
+        Assertions.assertEquals(bit, board.getBitboard(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT));
+        Assertions.assertEquals(bit, board.getOccupancy(ChessGame.TeamColor.BLACK));
+        Assertions.assertEquals(0L, board.getOccupancy(ChessGame.TeamColor.WHITE));
+
+        board.addPiece(position, getNewPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.QUEEN));
+        Assertions.assertEquals(0L, board.getBitboard(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT),
+                "Replacing a piece left the old piece in its bitboard");
+        Assertions.assertEquals(bit, board.getBitboard(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.QUEEN));
+
+        board.removePiece(position);
+        Assertions.assertEquals(0L, board.getOccupancy());
+        Assertions.assertNull(board.getPiece(position));
+    }
+
+    @Test
+    @DisplayName("Reset Board Bitboards")
+    public void resetBoardBitboards() {
+        var board = getNewBoard();
+        board.addPiece(getNewPosition(5, 5), getNewPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK));
+        board.resetBoard();
+
+        Assertions.assertEquals(0xFFFFL, board.getOccupancy(ChessGame.TeamColor.WHITE));
+        Assertions.assertEquals(0xFFFFL << 48, board.getOccupancy(ChessGame.TeamColor.BLACK));
+        Assertions.assertEquals(0xFFL << 8, board.getBitboard(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
+        Assertions.assertEquals(Bitboards.bit(Bitboards.square(8, 5)),
+                board.getBitboard(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KING));
+    }
+
+    @Test
+    @DisplayName("Square Attacked Through Rays and Jumps")
+    public void squareAttacked() {
+        var board = loadBoard("""
+                | | | | |k| | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | |p| |
+                | | | | | | | | |
+                | |n| | | | | | |
+                | | | | | | | | |
+                |R| | | |K| | |B|
+                """);
+
+        Assertions.assertTrue(board.isSquareAttacked(getNewPosition(4, 8), ChessGame.TeamColor.BLACK), "Pawn diagonal");
+        Assertions.assertTrue(board.isSquareAttacked(getNewPosition(1, 3), ChessGame.TeamColor.BLACK), "Knight jump");
+        Assertions.assertTrue(board.isSquareAttacked(getNewPosition(1, 4), ChessGame.TeamColor.WHITE), "Rook ray");
+        Assertions.assertTrue(board.isSquareAttacked(getNewPosition(4, 5), ChessGame.TeamColor.WHITE), "Bishop ray");
+        Assertions.assertFalse(board.isSquareAttacked(getNewPosition(1, 7), ChessGame.TeamColor.WHITE),
+                "Rook ray continued through the king");
+        Assertions.assertFalse(board.isSquareAttacked(getNewPosition(4, 7), ChessGame.TeamColor.BLACK),
+                "A pawn does not attack straight ahead");
+    }
+
+    @Test
+    @DisplayName("Magic Slider Attacks Match Ray Walk")
+    public void magicAttacksMatchRayWalk() {
+        var random = new java.util.Random(240);
+        int[][] bishopRays = {{1,1}, {1,-1}, {-1,1}, {-1,-1}};
+        int[][] rookRays = {{1,0}, {-1,0}, {0,-1}, {0,1}};
+        for (int trial = 0; trial < 2000; trial++) {
+            long occupied = random.nextLong() & random.nextLong();
+            int square = random.nextInt(Bitboards.SQUARES);
+            Assertions.assertEquals(walkRays(square, occupied, bishopRays), Attacks.bishop(square, occupied));
+            Assertions.assertEquals(walkRays(square, occupied, rookRays), Attacks.rook(square, occupied));
+        }
+    }
+
+    private static long walkRays(int square, long occupied, int[][] rays) {
+        long attacks = 0L;
+        for (int[] ray : rays) {
+            int row = Bitboards.row(square) + ray[0];
+            int col = Bitboards.column(square) + ray[1];
+            for (; Bitboards.onBoard(row, col); row += ray[0], col += ray[1]) {
+                attacks |= Bitboards.bit(Bitboards.square(row, col));
+                if ((occupied & Bitboards.bit(Bitboards.square(row, col))) != 0) break;
+            }
+        }
+        return attacks;
+    }
+}
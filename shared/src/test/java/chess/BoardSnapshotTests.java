@@ -0,0 +1,61 @@
+package chess;
+
+import com.google.gson.Gson;
+import org.junit.jupiter.api.*;
+
+import static passoffTests.TestFactory.*;
+
+public class BoardSnapshotTests {
+
+    @Test
+    @DisplayName("Snapshot Survives Later Moves")
+    public void snapshotSurvivesLaterMoves() throws InvalidMoveException {
+        var game = getNewGame();
+        BoardSnapshot before = game.getSnapshot();
+
+        game.makeMove(getNewMove(getNewPosition(2, 5), getNewPosition(4, 5), null));
+        BoardSnapshot after = game.getSnapshot();
+
+        Assertions.assertNotSame(before, after);
+        Assertions.assertEquals(ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN), before.getPiece(getNewPosition(2, 5)));
+        Assertions.assertNull(before.getPiece(getNewPosition(4, 5)));
+        Assertions.assertEquals(ChessGame.TeamColor.WHITE, before.getTeamTurn());
+
+        Assertions.assertNull(after.getPiece(getNewPosition(2, 5)));
+        Assertions.assertEquals(ChessGame.TeamColor.BLACK, after.getTeamTurn());
+        Assertions.assertEquals(game.getZobristKey(), after.getZobristKey());
+        Assertions.assertEquals(game.getBoard(), after.toBoard());
+    }
+
+    @Test
+    @DisplayName("Snapshot Follows Set Board")
+    public void snapshotFollowsSetBoard() {
+        var game = getNewGame();
+        var board = loadBoard("""
+                | | | | |k| | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | |K| | | |
+                """);
+        game.setBoard(board);
+        Assertions.assertEquals(Long.bitCount(board.getOccupancy()), Long.bitCount(game.getSnapshot().getOccupancy()));
+        Assertions.assertEquals(new BoardSnapshot(board, ChessGame.TeamColor.WHITE), game.getSnapshot());
+    }
+
+    @Test
+    @DisplayName("Snapshot Matches A Game Read By Gson")
+    public void snapshotMatchesGsonGame() throws InvalidMoveException {
+        var game = getNewGame();
+        game.makeMove(getNewMove(getNewPosition(2, 5), getNewPosition(4, 5), null));
+
+        var read = new Gson().fromJson(new Gson().toJson(game), ChessGame.class);
+        Assertions.assertEquals(game, read);
+        Assertions.assertEquals(game.getSnapshot(), read.getSnapshot());
+        Assertions.assertEquals(ChessGame.TeamColor.BLACK, read.getSnapshot().getTeamTurn());
+        Assertions.assertEquals(read.getZobristKey(), read.getSnapshot().getZobristKey());
+    }
+}
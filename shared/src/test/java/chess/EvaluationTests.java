@@ -0,0 +1,71 @@
+package chess;
+
+import org.junit.jupiter.api.*;
+
+import java.util.Random;
+
+import static passoffTests.TestFactory.*;
+
+public class EvaluationTests {
+
+    @Test
+    @DisplayName("Start Position Is Level")
+    public void startPositionLevel() {
+        Assertions.assertEquals(0, getNewGame().getEvaluation());
+    }
+
+    @Test
+    @DisplayName("Incremental Score Matches Rebuilt Board")
+    public void incrementalMatchesRebuilt() {
+        var random = new Random(7);
+        var board = getNewBoard();
+        board.resetBoard();
+        var color = ChessGame.TeamColor.WHITE;
+        var moves = new MoveList();
+        for (int ply = 0; ply < 200; ply++) {
+            moves.clear();
+            MoveGenerator.generateLegal(board, color, moves);
+            if (moves.isEmpty()) break;
+            board.makeMove(moves.get(random.nextInt(moves.size())));
+            color = color.opponent();
+            Assertions.assertEquals(rebuilt(board).getEvaluation(), board.getEvaluation(), "Ply " + ply);
+        }
+        while (board.getUndoDepth() > 0) board.unmakeMove();
+        Assertions.assertEquals(0, board.getEvaluation());
+    }
+
+    @Test
+    @DisplayName("Mirrored Position Negates Score")
+    public void mirroredNegates() {
+        var board = loadBoard("""
+                | | | | |k| | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | |P| | | | |
+                | | | | | | | | |
+                | | | | | |N| | |
+                | | | | | | | | |
+                | | | | |K| | | |
+                """);
+        var mirrored = loadBoard("""
+                | | | | |k| | | |
+                | | | | | | | | |
+                | | | | | |n| | |
+                | | | | | | | | |
+                | | | |p| | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | |K| | | |
+                """);
+        Assertions.assertTrue(board.getEvaluation() > 400, "A pawn and knight up");
+        Assertions.assertEquals(-board.getEvaluation(), mirrored.getEvaluation());
+    }
+
+    private static ChessBoard rebuilt(ChessBoard board) {
+        var copy = new ChessBoard();
+        for (int square = 0; square < Bitboards.SQUARES; square++) {
+            if (board.getPiece(square) != null) copy.addPiece(ChessPosition.of(square), board.getPiece(square));
+        }
+        return copy;
+    }
+}
@@ -0,0 +1,69 @@
+package chess;
+
+import org.junit.jupiter.api.*;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static passoffTests.TestFactory.*;
+
+public class FenTests {
+
+    private static final String START = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w - - 0 1";
+
+    @Test
+    @DisplayName("Start Position Round Trips")
+    public void startPositionRoundTrips() {
+        Assertions.assertEquals(START, getNewGame().toFen());
+        Assertions.assertEquals(getNewGame(), ChessGame.fromFen(START));
+        Assertions.assertEquals(getNewGame(), ChessGame.fromFen("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq -"),
+                "castling and en passant are ignored and the counters are optional");
+    }
+
+    @Test
+    @DisplayName("Counters Follow Moves")
+    public void countersFollowMoves() throws InvalidMoveException {
+        var game = getNewGame();
+        game.makeMove(getNewMove(getNewPosition(2, 5), getNewPosition(4, 5), null));
+        Assertions.assertEquals("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b - - 0 1", game.toFen());
+
+        game.makeMove(getNewMove(getNewPosition(8, 7), getNewPosition(6, 6), null));
+        game.makeMove(getNewMove(getNewPosition(1, 7), getNewPosition(3, 6), null));
+        var fen = game.toFen();
+        Assertions.assertEquals("rnbqkb1r/pppppppp/5n2/8/4P3/5N2/PPPP1PPP/RNBQKB1R b - - 2 2", fen);
+
+        var parsed = ChessGame.fromFen(fen);
+        Assertions.assertEquals(game, parsed);
+        Assertions.assertEquals(2, parsed.getHalfmoveClock());
+        Assertions.assertEquals(2, parsed.getFullmoveNumber());
+        Assertions.assertEquals(game.getZobristKey(), parsed.getZobristKey());
+    }
+
+    @Test
+    @DisplayName("Byte Buffers Hold Several Positions")
+    public void byteBufferRoundTrips() {
+        var endgame = "8/8/8/3k4/8/8/5Q2/4K3 b - - 12 40";
+        var buffer = ByteBuffer.allocate(256);
+        ChessGame.fromFen(START).toFen(buffer);
+        buffer.put((byte) '\n');
+        ChessGame.fromFen(endgame).toFen(buffer);
+        buffer.flip();
+
+        Assertions.assertEquals(START + "\n" + endgame, StandardCharsets.US_ASCII.decode(buffer.duplicate()).toString());
+        Assertions.assertEquals(START, ChessGame.fromFen(buffer).toFen());
+        Assertions.assertEquals(endgame, ChessGame.fromFen(buffer).toFen());
+        Assertions.assertFalse(buffer.hasRemaining());
+    }
+
+    @Test
+    @DisplayName("Malformed FEN Is Rejected")
+    public void malformedFenIsRejected() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ChessGame.fromFen("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP w - - 0 1"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ChessGame.fromFen("rnbqkbnr/ppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w - - 0 1"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ChessGame.fromFen("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNX w - - 0 1"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ChessGame.fromFen(START.replace(" w ", " x ")));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ChessGame.fromFen(START + " extra"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ChessGame.fromFen(START.replace(" 0 1", " \u0663 1")),
+                "counters must use ASCII digits");
+    }
+}
@@ -0,0 +1,67 @@
+package chess;
+
+import com.google.gson.Gson;
+import org.junit.jupiter.api.*;
+
+public class FlyweightTests {
+
+    @Test
+    @DisplayName("Canonical Positions")
+    public void canonicalPositions() {
+        ChessPosition position = ChessPosition.of(3, 6);
+        Assertions.assertSame(position, ChessPosition.of(3, 6));
+        Assertions.assertSame(position, ChessPosition.of(position.getSquare()));
+        Assertions.assertEquals(new ChessPosition(3, 6), position);
+        Assertions.assertEquals(new ChessPosition(3, 6).hashCode(), position.hashCode());
+        Assertions.assertEquals(21, position.getSquare());
+        Assertions.assertEquals(new ChessPosition(0, 9), ChessPosition.of(0, 9), "Off-board squares still work");
+    }
+
+    @Test
+    @DisplayName("Canonical Moves")
+    public void canonicalMoves() {
+        ChessMove move = ChessMove.of(ChessPosition.of(7, 2), ChessPosition.of(8, 1), ChessPiece.PieceType.QUEEN);
+        Assertions.assertSame(move, ChessMove.of(move.getStartSquare(), move.getEndSquare(), ChessPiece.PieceType.QUEEN));
+        Assertions.assertEquals(new ChessMove(new ChessPosition(7, 2), new ChessPosition(8, 1), ChessPiece.PieceType.QUEEN), move);
+
+        ChessMove quiet = ChessMove.of(12, 28, null);
+        Assertions.assertSame(quiet, ChessMove.of(ChessPosition.of(2, 5), ChessPosition.of(4, 5), null));
+        Assertions.assertNull(quiet.getPromotionPiece());
+        Assertions.assertNotEquals(move, ChessMove.of(move.getStartSquare(), move.getEndSquare(), ChessPiece.PieceType.ROOK));
+    }
+
+    @Test
+    @DisplayName("Boards Hold Canonical Pieces")
+    public void canonicalPieces() {
+        ChessPiece knight = ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT);
+        Assertions.assertSame(knight, ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT));
+        Assertions.assertEquals(new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT), knight);
+
+        var board = new ChessBoard();
+        board.addPiece(ChessPosition.of(7, 1), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
+        Assertions.assertSame(ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN), board.getPiece(ChessPosition.of(7, 1)));
+
+        board.makeMove(Move.encode(48, 56, ChessPiece.PieceType.ROOK, 0));
+        Assertions.assertSame(ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK), board.getPiece(56));
+        board.unmakeMove();
+        Assertions.assertSame(ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN), board.getPiece(48));
+
+        var copy = new ChessBoard(board);
+        Assertions.assertSame(board.getPiece(48), copy.getPiece(48));
+    }
+
+    @Test
+    @DisplayName("Boards Read By Gson Hold Canonical Pieces")
+    public void gsonBoardsAreCanonical() {
+        var board = new ChessBoard();
+        board.resetBoard();
+        board.removePiece(ChessPosition.of(2, 5));
+
+        var read = new Gson().fromJson(new Gson().toJson(board), ChessBoard.class);
+        Assertions.assertEquals(board, read);
+        Assertions.assertSame(ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.QUEEN), read.getPiece(ChessPosition.of(8, 4)));
+        Assertions.assertEquals(board.getZobristKey(), read.getZobristKey());
+        Assertions.assertEquals(board.getEvaluation(), read.getEvaluation());
+        Assertions.assertEquals(board.getOccupancy(), read.getOccupancy());
+    }
+}
@@ -0,0 +1,69 @@
+package chess;
+
+import com.google.gson.Gson;
+import model.GameData;
+import org.junit.jupiter.api.*;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import static passoffTests.TestFactory.*;
+
+public class GameCodecTests {
+
+    @Test
+    @DisplayName("Games Round Trip In Under 40 Bytes")
+    public void gamesRoundTrip() throws InvalidMoveException {
+        var game = getNewGame();
+        byte[] start = GameCodec.encode(game);
+        Assertions.assertEquals(28, start.length);
+        Assertions.assertEquals(game, GameCodec.decode(start));
+
+        game.makeMove(getNewMove(getNewPosition(2, 5), getNewPosition(4, 5), null));
+        game.makeMove(getNewMove(getNewPosition(8, 7), getNewPosition(6, 6), null));
+        game.makeMove(getNewMove(getNewPosition(1, 7), getNewPosition(3, 6), null));
+        var decoded = GameCodec.decode(GameCodec.encode(game));
+        Assertions.assertEquals(game, decoded);
+        Assertions.assertEquals(game.toFen(), decoded.toFen(), "counters and side to move survive");
+
+        var endgame = ChessGame.fromFen("8/8/8/3k4/8/8/5Q2/4K3 b - - 300 1200");
+        byte[] bytes = GameCodec.encode(endgame);
+        Assertions.assertTrue(bytes.length < 40);
+        Assertions.assertEquals(endgame.toFen(), GameCodec.decode(bytes).toFen());
+    }
+
+    @Test
+    @DisplayName("Buffers Hold Several Games")
+    public void buffersHoldSeveralGames() {
+        var buffer = ByteBuffer.allocate(2 * GameCodec.MAX_BYTES);
+        GameCodec.encode(getNewGame(), buffer);
+        GameCodec.encode(ChessGame.fromFen("8/8/8/3k4/8/8/5Q2/4K3 b - - 0 1"), buffer);
+        buffer.flip();
+
+        Assertions.assertEquals(getNewGame(), GameCodec.decode(buffer));
+        Assertions.assertEquals("8/8/8/3k4/8/8/5Q2/4K3 b - - 0 1", GameCodec.decode(buffer).toFen());
+        Assertions.assertFalse(buffer.hasRemaining());
+    }
+
+    @Test
+    @DisplayName("Bad Encodings Are Rejected")
+    public void badEncodingsAreRejected() {
+        byte[] bytes = GameCodec.encode(getNewGame());
+        byte[] future = bytes.clone();
+        future[0] = (byte) (GameCodec.VERSION + 1);
+        Assertions.assertThrows(IllegalArgumentException.class, () -> GameCodec.decode(future));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> GameCodec.decode(Arrays.copyOf(bytes, 20)));
+    }
+
+    @Test
+    @DisplayName("Gson Carries Games As Encoded Text")
+    public void gsonAdapterRoundTrips() {
+        var gson = new Gson();
+        var data = new GameData(7, "white", null, "casual", getNewGame());
+
+        String json = gson.toJson(data);
+        Assertions.assertTrue(json.length() < 120, json);
+        var read = gson.fromJson(json, GameData.class);
+        Assertions.assertEquals(data, read);
+    }
+}
@@ -0,0 +1,73 @@
+package chess;
+
+import org.junit.jupiter.api.*;
+
+import static passoffTests.TestFactory.*;
+
+public class GameStatusTests {
+
+    @Test
+    @DisplayName("New Game Is Ongoing")
+    public void newGameOngoing() {
+        Assertions.assertEquals(ChessGame.GameStatus.ONGOING, getNewGame().status());
+    }
+
+    @Test
+    @DisplayName("Check With Escape")
+    public void check() {
+        var game = gameWith("""
+                | | | | |k| | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | |R| | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | |K| | | |
+                """, ChessGame.TeamColor.BLACK);
+        Assertions.assertEquals(ChessGame.GameStatus.CHECK, game.status());
+        Assertions.assertFalse(game.status().isOver());
+    }
+
+    @Test
+    @DisplayName("Back Rank Checkmate")
+    public void checkmate() {
+        var game = gameWith("""
+                | | | |R| | |k| |
+                | | | | | |p|p|p|
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | |K| | | |
+                """, ChessGame.TeamColor.BLACK);
+        Assertions.assertEquals(ChessGame.GameStatus.CHECKMATE, game.status());
+        Assertions.assertTrue(game.isInCheckmate(ChessGame.TeamColor.BLACK));
+    }
+
+    @Test
+    @DisplayName("Cornered King Is Stalemated")
+    public void stalemate() {
+        var game = gameWith("""
+                |k| | | | | | | |
+                | | |Q| | | | | |
+                | |K| | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                """, ChessGame.TeamColor.BLACK);
+        Assertions.assertEquals(ChessGame.GameStatus.STALEMATE, game.status());
+        Assertions.assertTrue(game.isInStalemate(ChessGame.TeamColor.BLACK));
+        Assertions.assertFalse(game.isInCheckmate(ChessGame.TeamColor.BLACK));
+    }
+
+    private static ChessGame gameWith(String boardText, ChessGame.TeamColor turn) {
+        var game = getNewGame();
+        game.setBoard(loadBoard(boardText));
+        game.setTeamTurn(turn);
+        return game;
+    }
+}
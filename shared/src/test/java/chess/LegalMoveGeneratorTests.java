@@ -0,0 +1,115 @@
+package chess;
+
+import org.junit.jupiter.api.*;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static passoffTests.TestFactory.*;
+
+public class LegalMoveGeneratorTests {
+
+    @Test
+    @DisplayName("Masks Agree With Trial Moves Over Random Games")
+    public void masksAgreeWithTrialMoves() {
+        var random = new Random(2024);
+        for (int game = 0; game < 40; game++) {
+            var board = getNewBoard();
+            board.resetBoard();
+            var color = ChessGame.TeamColor.WHITE;
+            for (int ply = 0; ply < 120; ply++) {
+                Set<Integer> expected = trialFiltered(board, color);
+                Assertions.assertEquals(expected, legal(board, color), "Game " + game + ", ply " + ply);
+                Assertions.assertEquals(trialFiltered(board, color.opponent()), legal(board, color.opponent()));
+                Assertions.assertEquals(!expected.isEmpty(), MoveGenerator.hasLegalMove(board, color));
+                var targets = new long[Bitboards.SQUARES];
+                MoveGenerator.legalTargets(board, color, targets);
+                Assertions.assertArrayEquals(targetsOf(expected), targets);
+                var pseudoLegal = new MoveList();
+                MoveGenerator.generate(board, color, pseudoLegal);
+                for (int i = 0; i < pseudoLegal.size(); i++) {
+                    int move = pseudoLegal.get(i);
+                    int bare = move & ~(Move.CAPTURE | Move.DOUBLE_PUSH);
+                    Assertions.assertEquals(expected.contains(move) ? move : Move.NONE, MoveGenerator.legalMove(board, color, bare));
+                    Assertions.assertEquals(Move.NONE, MoveGenerator.legalMove(board, color.opponent(), bare));
+                }
+                if (expected.isEmpty()) break;
+
+                Integer[] moves = expected.toArray(new Integer[0]);
+                board.makeMove(moves[random.nextInt(moves.length)]);
+                color = color.opponent();
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Pinned Piece Slides Along the Pin")
+    public void pinnedPieceSlidesAlongPin() {
+        var board = loadBoard("""
+                | | | | |k| | | |
+                | | | | |r| | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | |R| | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | |K| | | |
+                """);
+        var moves = new MoveList();
+        MoveGenerator.generateLegal(board, Bitboards.square(4, 5), moves);
+        Assertions.assertEquals(5, moves.size(), "The rook may only move along the e-file");
+    }
+
+    @Test
+    @DisplayName("All Valid Moves Come Back By Square")
+    public void allValidMovesBySquare() {
+        var game = getNewGame();
+        game.setBoard(loadBoard("""
+                | | | | |k| | | |
+                | | | | |r| | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | |R| | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | |K| | | |
+                """));
+        long[] targets = game.allValidMoves(ChessGame.TeamColor.WHITE);
+
+        long eFile = 0;
+        for (int row = 2; row <= 7; row++) if (row != 4) eFile |= Bitboards.bit(Bitboards.square(row, 5));
+        Assertions.assertEquals(eFile, targets[Bitboards.square(4, 5)], "The pinned rook stays on the e-file");
+        Assertions.assertEquals(5, Long.bitCount(targets[Bitboards.square(1, 5)]));
+        Assertions.assertEquals(0, targets[Bitboards.square(8, 5)], "Black pieces have no entry");
+        Assertions.assertEquals(2, Arrays.stream(targets).filter(mask -> mask != 0).count());
+    }
+
+    private static long[] targetsOf(Set<Integer> moves) {
+        long[] targets = new long[Bitboards.SQUARES];
+        for (int move : moves) targets[Move.from(move)] |= Bitboards.bit(Move.to(move));
+        return targets;
+    }
+
+    private static Set<Integer> legal(ChessBoard board, ChessGame.TeamColor color) {
+        var moves = new MoveList();
+        MoveGenerator.generateLegal(board, color, moves);
+        Set<Integer> set = new HashSet<>();
+        for (int i = 0; i < moves.size(); i++) set.add(moves.get(i));
+        return set;
+    }
+
+    private static Set<Integer> trialFiltered(ChessBoard board, ChessGame.TeamColor color) {
+        var moves = new MoveList();
+        MoveGenerator.generate(board, color, moves);
+        Set<Integer> set = new HashSet<>();
+        for (int i = 0; i < moves.size(); i++) {
+            board.makeMove(moves.get(i));
+            int king = board.kingSquare(color);
+            if (king < 0 || !board.isSquareAttacked(king, color.opponent())) set.add(moves.get(i));
+            board.unmakeMove();
+        }
+        return set;
+    }
+}
@@ -0,0 +1,69 @@
+package chess;
+
+import org.junit.jupiter.api.*;
+
+import static passoffTests.TestFactory.*;
+
+public class MakeUnmakeTests {
+
+    @Test
+    @DisplayName("Unmake Restores Board, Key and Pieces")
+    public void unmakeRestoresEverything() {
+        var board = loadBoard("""
+                |n| |n| | | | | |
+                |P|P|P|k| | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | |r| | |
+                | | | | |K|p|p|p|
+                | | | | | |N| |N|
+                """);
+        var before = new ChessBoard(board);
+        long key = board.getZobristKey();
+        ChessPiece pawn = board.getPiece(getNewPosition(7, 2));
+
+        for (ChessGame.TeamColor color : ChessGame.TeamColor.values()) {
+            var moves = new MoveList();
+            MoveGenerator.generate(board, color, moves);
+            for (int i = 0; i < moves.size(); i++) {
+                board.makeMove(moves.get(i));
+                Assertions.assertEquals(1, board.getUndoDepth());
+                board.unmakeMove();
+
+                Assertions.assertEquals(before, board, "Board changed after " + Move.toString(moves.get(i)));
+                Assertions.assertEquals(key, board.getZobristKey());
+            }
+        }
+        Assertions.assertSame(pawn, board.getPiece(getNewPosition(7, 2)), "Pieces are moved, not copied");
+        Assertions.assertEquals(ChessPiece.PieceType.PAWN, pawn.getPieceType(), "Promotion must not modify the pawn");
+    }
+
+    @Test
+    @DisplayName("Promotion Places a New Piece")
+    public void promotionPlacesNewPiece() {
+        var board = getNewBoard();
+        board.addPiece(getNewPosition(7, 1), getNewPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
+
+        board.makeMove(Move.encode(Bitboards.square(7, 1), Bitboards.square(8, 1), ChessPiece.PieceType.QUEEN, 0));
+        Assertions.assertEquals(getNewPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.QUEEN), board.getPiece(getNewPosition(8, 1)));
+        Assertions.assertNull(board.getPiece(getNewPosition(7, 1)));
+
+        board.unmakeMove();
+        Assertions.assertEquals(getNewPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN), board.getPiece(getNewPosition(7, 1)));
+        Assertions.assertThrows(IllegalStateException.class, board::unmakeMove);
+    }
+
+    @Test
+    @DisplayName("Game Moves Cannot Be Taken Back")
+    public void gameMovesLeaveNoUndo() throws InvalidMoveException {
+        var game = getNewGame();
+        game.makeMove(getNewMove(getNewPosition(2, 5), getNewPosition(4, 5), null));
+        game.makeMove(getNewMove(getNewPosition(8, 7), getNewPosition(6, 6), null));
+
+        Assertions.assertEquals(0, game.getBoard().getUndoDepth());
+        Assertions.assertThrows(IllegalStateException.class, game.getBoard()::unmakeMove);
+        Assertions.assertEquals(ChessGame.TeamColor.WHITE, game.getTeamTurn());
+        Assertions.assertEquals(game.getBoard(), game.getSnapshot().toBoard());
+    }
+}
@@ -0,0 +1,58 @@
+package chess;
+
+import org.junit.jupiter.api.*;
+
+import static passoffTests.TestFactory.*;
+
+public class MoveListTests {
+
+    @Test
+    @DisplayName("Packed Move Round Trip")
+    public void packedMoveRoundTrip() {
+        int move = Move.encode(52, 60, ChessPiece.PieceType.KNIGHT, Move.CAPTURE);
+        Assertions.assertEquals(52, Move.from(move));
+        Assertions.assertEquals(60, Move.to(move));
+        Assertions.assertEquals(ChessPiece.PieceType.KNIGHT, Move.promotion(move));
+        Assertions.assertTrue(Move.isCapture(move));
+        Assertions.assertTrue(Move.sameMove(move, Move.encode(Move.toChessMove(move))));
+        Assertions.assertNotEquals(Move.NONE, Move.encode(0, 1, 0));
+    }
+
+    @Test
+    @DisplayName("List Grows and Is Reused")
+    public void listGrowsAndIsReused() {
+        var moves = new MoveList(2);
+        for (int i = 1; i <= 5; i++) moves.add(Move.encode(0, i, 0));
+        Assertions.assertEquals(5, moves.size());
+        Assertions.assertEquals(Move.encode(0, 5, 0), moves.get(4));
+
+        moves.clear();
+        Assertions.assertTrue(moves.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Fill Caller List With Valid Moves")
+    public void fillCallerList() {
+        var game = getNewGame();
+        var moves = new MoveList();
+        game.validMoves(ChessGame.TeamColor.WHITE, moves);
+        Assertions.assertEquals(20, moves.size());
+
+        game.validMoves(getNewPosition(1, 2), moves);
+        Assertions.assertEquals(22, moves.size(), "Moves are appended to the list");
+        Assertions.assertEquals(game.validMoves(getNewPosition(1, 2)),
+                getNewPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT).pieceMoves(game.getBoard(), getNewPosition(1, 2)));
+    }
+
+    @Test
+    @DisplayName("King And Pawn Promotions Are Rejected")
+    public void kingAndPawnPromotionsRejected() {
+        var game = getNewGame();
+        Assertions.assertThrows(InvalidMoveException.class,
+                () -> game.makeMove(getNewMove(getNewPosition(2, 5), getNewPosition(4, 5), ChessPiece.PieceType.KING)));
+        Assertions.assertThrows(InvalidMoveException.class,
+                () -> game.makeMove(getNewMove(getNewPosition(2, 5), getNewPosition(4, 5), ChessPiece.PieceType.PAWN)));
+        Assertions.assertEquals(ChessGame.TeamColor.WHITE, game.getTeamTurn());
+        Assertions.assertEquals(getNewGame(), game);
+    }
+}
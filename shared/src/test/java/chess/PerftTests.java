@@ -0,0 +1,55 @@
+package chess;
+
+import org.junit.jupiter.api.*;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static passoffTests.TestFactory.*;
+
+public class PerftTests {
+
+    @Test
+    @DisplayName("Start Position Counts")
+    public void startPositionCounts() {
+        var game = getNewGame();
+        long[] expected = {1, 20, 400, 8902, 197281};
+        for (int depth = 0; depth < expected.length; depth++) {
+            Assertions.assertEquals(expected[depth], Perft.perft(game, depth), "Depth " + depth);
+        }
+        Assertions.assertEquals(getNewGame(), game, "Perft must not touch the game");
+
+        var root = Perft.divide(game, 0);
+        Assertions.assertEquals(1, root.nodes(), "Depth 0 is just the root");
+        Assertions.assertTrue(root.divide().isEmpty());
+        Assertions.assertEquals(root.divide(), Perft.parallelDivide(game, 0).divide());
+        Assertions.assertEquals(1, Perft.parallelDivide(game, 0).nodes());
+    }
+
+    @Test
+    @DisplayName("Parallel And Hashed Counts Match Serial")
+    public void parallelMatchesSerial() {
+        var game = getNewGame();
+        game.setBoard(loadBoard("""
+                |n| |n| | | | | |
+                |P|P|P|k| | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | |K|p|p|p|
+                | | | | | |N| |N|
+                """));
+        game.setTeamTurn(ChessGame.TeamColor.BLACK);
+
+        var serial = Perft.divide(game, 4);
+        Assertions.assertEquals(182838, serial.nodes());
+        Assertions.assertEquals(24, serial.divide().size());
+
+        var parallel = Perft.parallelDivide(game, 4, new ForkJoinPool(3), null);
+        Assertions.assertEquals(serial.divide(), parallel.divide());
+
+        var cache = new Perft.Cache(1);
+        Assertions.assertEquals(serial.divide(), Perft.parallelDivide(game, 4, ForkJoinPool.commonPool(), cache).divide());
+        Assertions.assertEquals(serial.nodes(), Perft.perft(game, 4, cache), "A warm cache gives the same count");
+    }
+}
@@ -0,0 +1,54 @@
+package chess;
+
+import org.junit.jupiter.api.*;
+
+import static passoffTests.TestFactory.*;
+
+public class RepetitionTests {
+
+    @Test
+    @DisplayName("Third Repetition Draws The Game")
+    public void thirdRepetitionDraws() throws InvalidMoveException {
+        var game = getNewGame();
+        shuffleKnights(game);
+        Assertions.assertEquals(ChessGame.GameStatus.ONGOING, game.status(), "the start position has occurred twice");
+        Assertions.assertFalse(game.isDrawByRepetition());
+
+        shuffleKnights(game);
+        Assertions.assertTrue(game.isDrawByRepetition());
+        Assertions.assertEquals(ChessGame.GameStatus.DRAW_REPETITION, game.status());
+        Assertions.assertTrue(game.status().isOver());
+
+        game.setBoard(game.getBoard());
+        Assertions.assertEquals(ChessGame.GameStatus.ONGOING, game.status(), "setting the board starts a new history");
+    }
+
+    @Test
+    @DisplayName("Pawn Moves And Captures Close The Window")
+    public void irreversibleMovesCloseWindow() {
+        var history = new PositionHistory();
+        history.push(1, true);
+        history.push(2, false);
+        history.push(1, false);
+        Assertions.assertEquals(1, history.repetitions());
+        Assertions.assertTrue(history.isRepetition());
+
+        history.push(2, false);
+        history.push(3, true);
+        history.push(2, false);
+        history.push(3, false);
+        Assertions.assertEquals(1, history.repetitions(), "positions before the pawn move cannot come back");
+
+        history.pop();
+        history.push(4, false);
+        Assertions.assertFalse(history.isRepetition());
+        Assertions.assertEquals(7, history.size());
+    }
+
+    private static void shuffleKnights(ChessGame game) throws InvalidMoveException {
+        game.makeMove(getNewMove(getNewPosition(1, 7), getNewPosition(3, 6), null));
+        game.makeMove(getNewMove(getNewPosition(8, 7), getNewPosition(6, 6), null));
+        game.makeMove(getNewMove(getNewPosition(3, 6), getNewPosition(1, 7), null));
+        game.makeMove(getNewMove(getNewPosition(6, 6), getNewPosition(8, 7), null));
+    }
+}
@@ -0,0 +1,52 @@
+package chess;
+
+import org.junit.jupiter.api.*;
+
+import static passoffTests.TestFactory.*;
+
+public class ValidMovesCacheTests {
+
+    @Test
+    @DisplayName("Cached Moves Match Fresh Generation")
+    public void cachedMovesMatchGeneration() throws InvalidMoveException {
+        var game = getNewGame();
+        game.makeMove(getNewMove(getNewPosition(2, 5), getNewPosition(4, 5), null));
+        game.makeMove(getNewMove(getNewPosition(7, 4), getNewPosition(5, 4), null));
+
+        for (int pass = 0; pass < 2; pass++) {
+            for (int square = 0; square < Bitboards.SQUARES; square++) {
+                var position = ChessPosition.of(square);
+                if (game.getBoard().getPiece(square) == null) continue;
+                var expected = new MoveList();
+                MoveGenerator.generateLegal(game.getBoard(), square, expected);
+                Assertions.assertEquals(expected.toChessMoves(), game.validMoves(position), "square " + square);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Cache Follows Moves And Board Edits")
+    public void cacheFollowsChanges() throws InvalidMoveException {
+        var game = getNewGame();
+        var knight = getNewPosition(1, 7);
+        Assertions.assertEquals(2, game.validMoves(knight).size());
+
+        game.makeMove(getNewMove(getNewPosition(2, 5), getNewPosition(4, 5), null));
+        Assertions.assertEquals(3, game.validMoves(knight).size(), "e2 is free after 1. e4");
+
+        game.getBoard().addPiece(getNewPosition(3, 6), getNewPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
+        Assertions.assertEquals(2, game.validMoves(knight).size(), "a pawn added to f3 blocks the knight");
+
+        game.setBoard(loadBoard("""
+                | | | | |k| | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | |K| |N| |
+                """));
+        Assertions.assertEquals(3, game.validMoves(knight).size());
+    }
+}
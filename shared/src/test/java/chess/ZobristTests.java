@@ -0,0 +1,60 @@
+package chess;
+
+import org.junit.jupiter.api.*;
+
+import static passoffTests.TestFactory.*;
+
+public class ZobristTests {
+
+    @Test
+    @DisplayName("Key Follows Placement")
+    public void keyFollowsPlacement() {
+        var board = getNewBoard();
+        Assertions.assertEquals(0L, board.getZobristKey());
+
+        var position = getNewPosition(2, 3);
+        board.addPiece(position, getNewPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK));
+        long withRook = board.getZobristKey();
+        Assertions.assertNotEquals(0L, withRook);
+
+        board.addPiece(position, getNewPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK));
+        Assertions.assertNotEquals(withRook, board.getZobristKey(), "Replacing a piece must change the key");
+
+        board.removePiece(position);
+        Assertions.assertEquals(0L, board.getZobristKey());
+    }
+
+    @Test
+    @DisplayName("Transposed Positions Share a Key")
+    public void transpositionsShareKey() throws InvalidMoveException {
+        var first = getNewGame();
+        var second = getNewGame();
+        Assertions.assertEquals(first.getZobristKey(), second.getZobristKey());
+
+        first.makeMove(getNewMove(getNewPosition(1, 7), getNewPosition(3, 6), null));
+        Assertions.assertNotEquals(second.getZobristKey(), first.getZobristKey());
+        first.makeMove(getNewMove(getNewPosition(8, 2), getNewPosition(6, 3), null));
+        first.makeMove(getNewMove(getNewPosition(1, 2), getNewPosition(3, 3), null));
+
+        second.makeMove(getNewMove(getNewPosition(1, 2), getNewPosition(3, 3), null));
+        second.makeMove(getNewMove(getNewPosition(8, 2), getNewPosition(6, 3), null));
+        second.makeMove(getNewMove(getNewPosition(1, 7), getNewPosition(3, 6), null));
+
+        Assertions.assertEquals(first.getZobristKey(), second.getZobristKey());
+        Assertions.assertEquals(first, second);
+
+        var reloaded = new ChessBoard();
+        reloaded.resetBoard();
+        Assertions.assertNotEquals(reloaded.getZobristKey(), first.getBoard().getZobristKey());
+    }
+
+    @Test
+    @DisplayName("Side to Move Changes the Key")
+    public void sideToMoveChangesKey() {
+        var game = getNewGame();
+        long whiteToMove = game.getZobristKey();
+        game.setTeamTurn(ChessGame.TeamColor.BLACK);
+        Assertions.assertEquals(whiteToMove ^ Zobrist.SIDE_TO_MOVE, game.getZobristKey());
+        Assertions.assertEquals(whiteToMove, game.getBoard().getZobristKey(), "The board key covers placement only");
+    }
+}
@@ -0,0 +1,51 @@
+package chess.engine;
+
+import chess.ChessGame;
+import chess.Move;
+import chess.MoveGenerator;
+import chess.MoveList;
+import org.junit.jupiter.api.*;
+
+import static passoffTests.TestFactory.*;
+
+public class MoveOrderingTests {
+
+    @Test
+    @DisplayName("Hash Move, Then MVV-LVA, Then Killers, Then History")
+    public void orderingTiers() {
+        var board = loadBoard("""
+                | | | | |k| | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | |q| |p| | |
+                | | | |P|P| | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | |Q|K| | | |
+                """);
+        var moves = new MoveList();
+        MoveGenerator.generateLegal(board, ChessGame.TeamColor.WHITE, moves);
+
+        int hashMove = Move.encode(3, 11, 0);
+        int pawnTakesQueen = Move.encode(28, 35, Move.CAPTURE);
+        int pawnTakesPawn = Move.encode(28, 37, Move.CAPTURE);
+        int killer = Move.encode(3, 19, 0);
+        int historyMove = Move.encode(3, 2, 0);
+
+        var ordering = new MoveOrdering(Search.MAX_PLY);
+        ordering.recordCutoff(killer, 2, 3, ChessGame.TeamColor.WHITE);
+        ordering.recordCutoff(historyMove, 5, 4, ChessGame.TeamColor.WHITE);
+
+        int[] scores = new int[moves.size()];
+        ordering.score(board, moves, scores, hashMove, 2, ChessGame.TeamColor.WHITE);
+        int[] expected = {hashMove, pawnTakesQueen, pawnTakesPawn, killer, historyMove};
+        for (int i = 0; i < expected.length; i++) {
+            Assertions.assertTrue(Move.sameMove(expected[i], MoveOrdering.pick(moves, scores, i)),
+                    "Move " + i + " should be " + Move.toString(expected[i]));
+        }
+        for (int i = expected.length; i < moves.size(); i++) {
+            MoveOrdering.pick(moves, scores, i);
+            Assertions.assertTrue(scores[i - 1] >= scores[i]);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package chess.engine;
+
+import chess.ChessGame;
+import chess.InvalidMoveException;
+import chess.Move;
+import org.junit.jupiter.api.*;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+
+import static passoffTests.TestFactory.*;
+
+public class OpeningBookTests {
+
+    private static final String PGN = """
+            [Event "Casual"]
+            [Result "1-0"]
+
+            1. e4 e5 2. Nf3 {main line} Nc6 (2... d6 3. d4) 3. Bb5 a6 4. Ba4 Nf6 5. O-O Be7 1-0
+
+            [Event "Casual"]
+            [Result "0-1"]
+
+            1. e4 c5 2. Nf3 d6 3. d4 cxd4 4. Nxd4 Nf6 5. Nc3 a6 0-1
+
+            [Event "Casual"]
+            [Result "1/2-1/2"]
+
+            1.d4 Nf6 2.c4 e6 3.Nc3 Bb4 4.e3 O-O 1/2-1/2
+            """;
+
+    @Test
+    @DisplayName("Book Built From PGN Round Trips")
+    public void bookRoundTrips() throws IOException, InvalidMoveException {
+        var builder = new OpeningBookBuilder(12);
+        Assertions.assertEquals(3, builder.addPgn(new StringReader(PGN)));
+
+        var file = Files.createTempFile("book", ".bin");
+        try {
+            builder.write(file);
+            var book = OpeningBook.open(file);
+            var game = getNewGame();
+
+            Assertions.assertEquals(2, book.count(game.getZobristKey()));
+            Assertions.assertEquals(Move.encode(12, 28, Move.DOUBLE_PUSH), book.bestMove(game.getZobristKey()));
+            Assertions.assertEquals(Move.encode(11, 27, Move.DOUBLE_PUSH), book.weightedMove(game.getZobristKey(), 2));
+            Assertions.assertEquals(Move.NONE, book.bestMove(12345L));
+
+            Assertions.assertEquals(Move.encode(12, 28, Move.DOUBLE_PUSH), book.probe(game, 0));
+            game.makeMove(getNewMove(getNewPosition(2, 5), getNewPosition(4, 5), null));
+            Assertions.assertEquals(2, book.count(game.getZobristKey()), "1. e4 was answered by e5 and c5");
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    @DisplayName("Lines Stop At Castling")
+    public void linesStopAtCastling() throws IOException {
+        var builder = new OpeningBookBuilder(40);
+        builder.addPgn(new StringReader(PGN));
+        var file = Files.createTempFile("book", ".bin");
+        try {
+            builder.write(file);
+            // 8 + 10 + 7 half-moves before castling or the result, less the shared 1. e4
+            Assertions.assertEquals(24, OpeningBook.open(file).size());
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    @DisplayName("SAN Disambiguation")
+    public void sanDisambiguation() {
+        var game = getNewGame();
+        game.setBoard(loadBoard("""
+                | | | | |k| | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | |K| | | |
+                |R| | | | | | |R|
+                """));
+        Assertions.assertEquals(Move.NONE, OpeningBookBuilder.parseSan(game, "Rd1"), "Either rook can go to d1");
+        Assertions.assertEquals(Move.encode(0, 3, 0), OpeningBookBuilder.parseSan(game, "Rad1"));
+        Assertions.assertEquals(Move.encode(7, 5, 0), OpeningBookBuilder.parseSan(game, "Rhf1+"));
+        Assertions.assertEquals(Move.encode(7, 63, 0), OpeningBookBuilder.parseSan(game, "Rh8#"));
+        Assertions.assertEquals(ChessGame.TeamColor.WHITE, game.getTeamTurn());
+    }
+}
@@ -0,0 +1,50 @@
+package chess.engine;
+
+import chess.ChessGame;
+import org.junit.jupiter.api.*;
+
+import java.time.Duration;
+
+import static passoffTests.TestFactory.*;
+
+public class ParallelSearchTests {
+
+    @Test
+    @DisplayName("Threads Agree On Winning Capture")
+    public void threadsAgreeOnCapture() {
+        var game = getNewGame();
+        game.setBoard(loadBoard("""
+                | | | | |k| | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | |q| | | |
+                | | | | | | | | |
+                | | | | | |N| | |
+                | | | | | | | | |
+                | | | | |K| | | |
+                """));
+        try (var search = new ParallelSearch(new TranspositionTable(4), 4)) {
+            for (int threads = 1; threads <= 4; threads++) {
+                var result = search.search(game, Long.MAX_VALUE, 4, threads);
+                Assertions.assertEquals(getNewMove(getNewPosition(3, 6), getNewPosition(5, 5), null), result.bestMove(),
+                        threads + " threads");
+                Assertions.assertTrue(result.depth() >= 4);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Helpers Stop At The Deadline")
+    public void helpersStopAtDeadline() {
+        var game = getNewGame();
+        try (var search = new ParallelSearch(new TranspositionTable(16), 4)) {
+            long start = System.nanoTime();
+            var result = search.search(game, Duration.ofMillis(100));
+            long elapsed = System.nanoTime() - start;
+
+            Assertions.assertNotNull(result.bestMove());
+            Assertions.assertEquals(ChessGame.TeamColor.WHITE, game.getBoard().getPiece(result.bestMove().getStartPosition()).getTeamColor());
+            Assertions.assertTrue(elapsed < Duration.ofMillis(1000).toNanos(), "Search ran " + elapsed / 1_000_000 + " ms");
+        }
+    }
+}
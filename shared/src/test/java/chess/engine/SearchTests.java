@@ -0,0 +1,104 @@
+package chess.engine;
+
+import chess.ChessGame;
+import chess.InvalidMoveException;
+import org.junit.jupiter.api.*;
+
+import java.time.Duration;
+
+import static passoffTests.TestFactory.*;
+
+public class SearchTests {
+
+    private static final long NO_DEADLINE = Long.MAX_VALUE;
+
+    @Test
+    @DisplayName("Finds Back Rank Mate")
+    public void findsMateInOne() {
+        var game = gameWith("""
+                | | | | | | |k| |
+                | | | | | |p|p|p|
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                |R| | | |K| | | |
+                """, ChessGame.TeamColor.WHITE);
+        var result = new Search().search(game, System.nanoTime() + Duration.ofSeconds(10).toNanos(), 4);
+        Assertions.assertEquals(getNewMove(getNewPosition(1, 1), getNewPosition(8, 1), null), result.bestMove());
+        Assertions.assertEquals(Search.MATE - 1, result.score());
+    }
+
+    @Test
+    @DisplayName("Takes Hanging Queen")
+    public void takesHangingQueen() {
+        var game = gameWith("""
+                | | | | |k| | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | |q| | | |
+                | | | | | | | | |
+                | | | | | |N| | |
+                | | | | | | | | |
+                | | | | |K| | | |
+                """, ChessGame.TeamColor.WHITE);
+        var before = game.getBoard().getZobristKey();
+        var result = new Search().search(game, NO_DEADLINE, 3);
+        Assertions.assertEquals(getNewMove(getNewPosition(3, 6), getNewPosition(5, 5), null), result.bestMove());
+        Assertions.assertEquals(before, game.getBoard().getZobristKey(), "Search must not touch the game");
+    }
+
+    @Test
+    @DisplayName("Returns A Move By The Deadline")
+    public void respectsDeadline() {
+        var game = getNewGame();
+        long start = System.nanoTime();
+        var result = new Search().search(game, Duration.ofMillis(50));
+        long elapsed = System.nanoTime() - start;
+
+        Assertions.assertNotNull(result.bestMove());
+        Assertions.assertTrue(game.validMoves(result.bestMove().getStartPosition()).contains(result.bestMove()));
+        Assertions.assertTrue(elapsed < Duration.ofMillis(500).toNanos(), "Search ran " + elapsed / 1_000_000 + " ms");
+    }
+
+    @Test
+    @DisplayName("No Move When Checkmated")
+    public void noMoveWhenMated() {
+        var game = gameWith("""
+                | | | |R| | |k| |
+                | | | | | |p|p|p|
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | |K| | | |
+                """, ChessGame.TeamColor.BLACK);
+        var result = new Search().search(game, Duration.ofMillis(50));
+        Assertions.assertNull(result.bestMove());
+        Assertions.assertEquals(-Search.MATE, result.score());
+    }
+
+    @Test
+    @DisplayName("Losing Side Repeats The Position")
+    public void losingSideRepeats() throws InvalidMoveException {
+        var game = ChessGame.fromFen("4k3/8/8/8/8/8/8/R3K3 b - - 0 1");
+        var toD8 = getNewMove(getNewPosition(8, 5), getNewPosition(8, 4), null);
+        game.makeMove(toD8);
+        game.makeMove(getNewMove(getNewPosition(1, 1), getNewPosition(2, 1), null));
+        game.makeMove(getNewMove(getNewPosition(8, 4), getNewPosition(8, 5), null));
+        game.makeMove(getNewMove(getNewPosition(2, 1), getNewPosition(1, 1), null));
+
+        var result = new Search().search(game, NO_DEADLINE, 1);
+        Assertions.assertEquals(toD8, result.bestMove(), "Kd8 reaches a position the game has already seen");
+        Assertions.assertEquals(0, result.score());
+    }
+
+    private static ChessGame gameWith(String boardText, ChessGame.TeamColor turn) {
+        var game = getNewGame();
+        game.setBoard(loadBoard(boardText));
+        game.setTeamTurn(turn);
+        return game;
+    }
+}
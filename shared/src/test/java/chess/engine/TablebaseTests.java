@@ -0,0 +1,132 @@
+package chess.engine;
+
+import chess.ChessGame;
+import chess.ChessPiece;
+import org.junit.jupiter.api.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+
+import static passoffTests.TestFactory.*;
+
+public class TablebaseTests {
+
+    private static Tablebase queenTable;
+
+    @Test
+    @DisplayName("Checkmate And Mate In One")
+    public void checkmateAndMateInOne() throws IOException {
+        var tablebase = queenTable();
+        var mated = gameWith("""
+                |k| | | | | | | |
+                | |Q| | | | | | |
+                | |K| | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                """, ChessGame.TeamColor.BLACK);
+        Assertions.assertEquals(Tablebase.Wdl.LOSS, tablebase.wdl(mated));
+        Assertions.assertEquals(0, tablebase.pliesToMate(mated.getBoard(), mated.getTeamTurn()));
+
+        var mateInOne = gameWith("""
+                |k| | | | | | | |
+                | | | | | | | |Q|
+                | |K| | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                """, ChessGame.TeamColor.WHITE);
+        Assertions.assertEquals(Tablebase.Wdl.WIN, tablebase.wdl(mateInOne));
+        Assertions.assertEquals(1, tablebase.pliesToMate(mateInOne.getBoard(), mateInOne.getTeamTurn()));
+        Assertions.assertEquals(20, tablebase.longestMate(ChessPiece.PieceType.QUEEN), "KQK is mate in at most 10 moves");
+    }
+
+    @Test
+    @DisplayName("Hanging Queen Is A Draw For Either Color")
+    public void hangingQueenIsDraw() throws IOException {
+        var tablebase = queenTable();
+        var hanging = gameWith("""
+                |k| | | | | | | |
+                | |Q| | | | | | |
+                | | | |K| | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                """, ChessGame.TeamColor.BLACK);
+        Assertions.assertEquals(Tablebase.Wdl.DRAW, tablebase.wdl(hanging));
+
+        var flipped = gameWith("""
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | |k| | | | |
+                | |q| | | | | | |
+                |K| | | | | | | |
+                """, ChessGame.TeamColor.WHITE);
+        Assertions.assertEquals(Tablebase.Wdl.DRAW, tablebase.wdl(flipped));
+
+        var blackMates = gameWith("""
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | |k| | | | | | |
+                | | | | | | | |q|
+                |K| | | | | | | |
+                """, ChessGame.TeamColor.BLACK);
+        Assertions.assertEquals(Tablebase.Wdl.WIN, tablebase.wdl(blackMates));
+        Assertions.assertEquals(1, tablebase.pliesToMate(blackMates.getBoard(), blackMates.getTeamTurn()));
+
+        Assertions.assertFalse(tablebase.covers(ChessPiece.PieceType.PAWN));
+        Assertions.assertNull(tablebase.wdl(getNewGame()), "only three-piece positions are covered");
+    }
+
+    @Test
+    @DisplayName("Search Plays Towards Tablebase Mate")
+    public void searchUsesTablebase() throws IOException {
+        var game = gameWith("""
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | |k| | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | |Q| | |
+                | | | | |K| | | |
+                """, ChessGame.TeamColor.WHITE);
+        int plies = queenTable().pliesToMate(game.getBoard(), game.getTeamTurn());
+
+        var search = new Search();
+        search.setTablebase(queenTable());
+        var result = search.search(game, Long.MAX_VALUE, 2);
+        Assertions.assertEquals(Search.MATE - plies, result.score());
+    }
+
+    private static synchronized Tablebase queenTable() throws IOException {
+        if (queenTable == null) {
+            var generator = new TablebaseGenerator();
+            generator.solve(ChessPiece.PieceType.QUEEN);
+            var file = Files.createTempFile("tablebase", ".bin");
+            generator.write(file);
+            queenTable = Tablebase.open(file);
+            file.toFile().deleteOnExit();
+        }
+        return queenTable;
+    }
+
+    private static ChessGame gameWith(String boardText, ChessGame.TeamColor turn) {
+        var game = getNewGame();
+        game.setBoard(loadBoard(boardText));
+        game.setTeamTurn(turn);
+        return game;
+    }
+}
@@ -0,0 +1,72 @@
+package chess.engine;
+
+import chess.Move;
+import org.junit.jupiter.api.*;
+
+public class TranspositionTableTests {
+
+    private TranspositionTable table;
+
+    @BeforeEach
+    public void setUp() {
+        table = new TranspositionTable(1);
+    }
+
+    @Test
+    @DisplayName("Stored Entry Round Trips")
+    public void storedEntryRoundTrips() {
+        int move = Move.encode(12, 28, Move.DOUBLE_PUSH);
+        table.store(0x1234_5678_9ABC_DEF0L, move, -250, 7, TranspositionTable.LOWER);
+
+        long entry = table.probe(0x1234_5678_9ABC_DEF0L);
+        Assertions.assertEquals(move, TranspositionTable.move(entry));
+        Assertions.assertEquals(-250, TranspositionTable.score(entry));
+        Assertions.assertEquals(7, TranspositionTable.depth(entry));
+        Assertions.assertEquals(TranspositionTable.LOWER, TranspositionTable.bound(entry));
+
+        Assertions.assertEquals(TranspositionTable.MISS, table.probe(0x1234_5678_9ABC_DEF1L));
+        Assertions.assertEquals(1, table.getHits());
+        Assertions.assertEquals(1, table.getMisses());
+    }
+
+    @Test
+    @DisplayName("Different Key In Same Bucket Misses")
+    public void differentKeySameBucketMisses() {
+        long key = 42;
+        long other = key + (long) table.capacity();
+        table.store(key, Move.encode(1, 2, 0), 10, 3, TranspositionTable.EXACT);
+        Assertions.assertEquals(TranspositionTable.MISS, table.probe(other));
+    }
+
+    @Test
+    @DisplayName("Full Bucket Replaces Shallowest And Oldest")
+    public void replacementPolicy() {
+        int buckets = table.capacity() / 4;
+        for (int depth = 1; depth <= 4; depth++) {
+            table.store(7 + (long) depth * buckets, Move.NONE, 0, depth * 10, TranspositionTable.EXACT);
+        }
+        table.store(7 + 5L * buckets, Move.NONE, 0, 25, TranspositionTable.EXACT);
+        Assertions.assertEquals(TranspositionTable.MISS, table.probe(7 + (long) buckets), "Depth 10 entry is evicted");
+        Assertions.assertNotEquals(TranspositionTable.MISS, table.probe(7 + 4L * buckets));
+        Assertions.assertEquals(1, table.getCollisions());
+
+        table.newSearch();
+        table.newSearch();
+        table.newSearch();
+        table.store(7 + 6L * buckets, Move.NONE, 0, 1, TranspositionTable.EXACT);
+        Assertions.assertNotEquals(TranspositionTable.MISS, table.probe(7 + 6L * buckets));
+        Assertions.assertEquals(TranspositionTable.MISS, table.probe(7 + 2L * buckets), "Stale depth 20 entry is evicted");
+    }
+
+    @Test
+    @DisplayName("Same Position Keeps Known Move")
+    public void samePositionKeepsMove() {
+        int move = Move.encode(6, 21, 0);
+        table.store(99, move, 30, 4, TranspositionTable.LOWER);
+        table.store(99, Move.NONE, 12, 5, TranspositionTable.UPPER);
+        long entry = table.probe(99);
+        Assertions.assertEquals(move, TranspositionTable.move(entry));
+        Assertions.assertEquals(TranspositionTable.UPPER, TranspositionTable.bound(entry));
+        Assertions.assertEquals(0, table.getCollisions());
+    }
+}